@@ -16,8 +16,15 @@ public class AssertAspect {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass().getCanonicalName());
 
+    // execution matches the assertions of the projects using the library when
+    // hamcrest is woven (as by the ctw profile), call the ones of the library
+    // when it is not; either way each assertion is advised once
     @Pointcut("call(static public void org.hamcrest.MatcherAssert.assertThat(String, Object, org.hamcrest.Matcher))"
-            + " && args(reason, actual, matcher)")
+            + " || execution(static public void org.hamcrest.MatcherAssert.assertThat(String, Object, org.hamcrest.Matcher))")
+    protected void matcherAssertPointcut() {
+    }
+
+    @Pointcut("matcherAssertPointcut() && !cflowbelow(matcherAssertPointcut()) && args(reason, actual, matcher)")
     protected void logAssertFailurePointcut(String reason, Object actual, Matcher<?> matcher) {
     }
 /**
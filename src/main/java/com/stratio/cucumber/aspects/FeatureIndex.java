@@ -0,0 +1,170 @@
+package com.stratio.cucumber.aspects;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Lines of a feature file, read once per run (again only if the file changes),
+ * and the scenarios extracted from it by name, as included by @include tags.
+ */
+final class FeatureIndex {
+
+    private static final ConcurrentMap<String, FeatureIndex> CACHE = new ConcurrentHashMap<String, FeatureIndex>();
+
+    private final long lastModified;
+    private final long length;
+    private final List<String> lines;
+    private final ConcurrentMap<String, Extract> extracts = new ConcurrentHashMap<String, Extract>();
+
+    private FeatureIndex(long lastModified, long length, List<String> lines) {
+        this.lastModified = lastModified;
+        this.length = length;
+        this.lines = Collections.unmodifiableList(lines);
+    }
+
+    /**
+     * Index of a feature file, read the first time it is asked for or
+     * whenever it has changed since.
+     *
+     * @param feature
+     * @return FeatureIndex
+     * @throws IOException
+     */
+    static FeatureIndex of(File feature) throws IOException {
+        String key = feature.getCanonicalPath();
+        FeatureIndex index = CACHE.get(key);
+        long modified = feature.lastModified();
+        long size = feature.length();
+        if (index == null || index.lastModified != modified || index.length != size) {
+            index = new FeatureIndex(modified, size, Files.readAllLines(feature.toPath(), StandardCharsets.UTF_8));
+            CACHE.put(key, index);
+        }
+        return index;
+    }
+
+    /**
+     * @return List<String> unmodifiable lines of the feature
+     */
+    List<String> getLines() {
+        return lines;
+    }
+
+    /**
+     * Lines of the scenarios whose title contains the given name.
+     *
+     * @param scenarioName
+     * @return Extract
+     */
+    Extract extract(String scenarioName) {
+        Extract extract = extracts.get(scenarioName);
+        if (extract == null) {
+            extract = new Extract(lines, scenarioName);
+            extracts.putIfAbsent(scenarioName, extract);
+        }
+        return extract;
+    }
+
+    /**
+     * Steps of an included scenario, the example rows its parameters are
+     * checked against when it is an outline, and the @include lines tagging
+     * it.
+     */
+    static final class Extract {
+
+        private boolean found;
+        private boolean outline;
+        private final List<String> exampleRows = new ArrayList<String>();
+        private final List<String> includes = new ArrayList<String>();
+        private final String steps;
+
+        private Extract(List<String> lines, String scenarioName) {
+            StringBuilder sb = new StringBuilder();
+            int i = 0;
+            while (i < lines.size()) {
+                String line = lines.get(i++);
+                if (!line.contains(scenarioName)) {
+                    continue;
+                }
+                found = true;
+                String upper = line.toUpperCase();
+                if (!upper.contains("OUTLINE") && !upper.contains("SCENARIO:")) {
+                    continue;
+                }
+                tags(lines, i - 1);
+
+                List<String> block = new ArrayList<String>();
+                if (upper.contains("OUTLINE")) {
+                    outline = true;
+                    while (i < lines.size()) {
+                        String stepLine = lines.get(i++);
+                        if (stepLine.toUpperCase().contains("SCENARIO")) {
+                            break;
+                        }
+                        if (stepLine.contains("|")) {
+                            exampleRows.add(stepLine);
+                        } else if (!stepLine.toUpperCase().contains("EXAMPLES:")) {
+                            block.add(stepLine);
+                        }
+                    }
+                } else {
+                    while (i < lines.size()) {
+                        String stepLine = lines.get(i++);
+                        String stepUpper = stepLine.toUpperCase();
+                        if (stepUpper.contains("SCENARIO:") || stepUpper.contains("EXAMPLES:") || stepLine.contains("|")) {
+                            break;
+                        }
+                        block.add(stepLine);
+                    }
+                }
+                // tags of the next scenario are not part of this one
+                int end = block.size();
+                while (end > 0 && (block.get(end - 1).trim().startsWith("@") || "".equals(block.get(end - 1).trim()))) {
+                    end--;
+                }
+                for (String stepLine : block.subList(0, end)) {
+                    sb.append(stepLine).append('\n');
+                }
+            }
+            steps = sb.toString();
+        }
+
+        private void tags(List<String> lines, int header) {
+            int first = header;
+            while (first > 0 && lines.get(first - 1).trim().startsWith("@")) {
+                first--;
+            }
+            for (String tag : lines.subList(first, header)) {
+                if (tag.contains("@include")) {
+                    includes.add(tag);
+                }
+            }
+        }
+
+        boolean isFound() {
+            return found;
+        }
+
+        boolean isOutline() {
+            return outline;
+        }
+
+        List<String> getExampleRows() {
+            return exampleRows;
+        }
+
+        List<String> getIncludes() {
+            return includes;
+        }
+
+        String getSteps() {
+            return steps;
+        }
+    }
+}
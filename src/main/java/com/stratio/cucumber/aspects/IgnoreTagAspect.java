@@ -1,13 +1,14 @@
 package com.stratio.cucumber.aspects;
 
-import com.stratio.cucumber.testng.CucumberReporter;
-import cucumber.runtime.CucumberException;
+import com.stratio.cucumber.testng.IgnoreTags;
 import gherkin.formatter.Formatter;
 import gherkin.formatter.Reporter;
 import gherkin.formatter.model.Result;
 import gherkin.formatter.model.Scenario;
 import gherkin.formatter.model.Tag;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.Set;
 
@@ -20,10 +21,13 @@ import org.slf4j.LoggerFactory;
 
 import cucumber.runtime.Runtime;
 import cucumber.runtime.model.CucumberScenario;
+import cucumber.runtime.model.CucumberTagStatement;
 
 @Aspect
 public class IgnoreTagAspect {
 
+    private static final MethodHandle TAGS_AND_INHERITED_TAGS = tagsAndInheritedTags();
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass().getCanonicalName());
 
     @Pointcut("execution (* cucumber.runtime.model.CucumberScenario.run(..)) && "
@@ -46,58 +50,44 @@ public class IgnoreTagAspect {
         CucumberScenario scen = (CucumberScenario) pjp.getThis();
         Scenario scenario = (Scenario) scen.getGherkinModel();
 
-        Class<?> sc = scen.getClass();
-        Method tt = sc.getSuperclass().getDeclaredMethod("tagsAndInheritedTags");
-        tt.setAccessible(true);
-        Set<Tag> tags = (Set<Tag>) tt.invoke(scen);
-
-        Boolean ignore = false;
-        Boolean ignoreReason = false;
+        Set<Tag> tags = (Set<Tag>) TAGS_AND_INHERITED_TAGS.invoke(scen);
+        IgnoreTags ignoreTags = IgnoreTags.of(tags);
 
-        for (Tag tag : tags) {
-            if(tag.getName().equals("@ignore")) {
-                ignore = true;
-                for (Tag tagNs : tags){
-                    //@tillFixed
-                    if ((tagNs.getName()).matches("@tillfixed\\(\\w+-\\d+\\)")){
-                        String issueNumb = tagNs.getName().substring(tagNs.getName().lastIndexOf('(') + 1);
-                        logger.warn("Scenario '"+scenario.getName()+"' ignored because of Issue: " + issueNumb.subSequence(0, issueNumb.length() - 1) +".");
-                        ignoreReason=true;
-                        break;
-                    }
-                    //@unimplemented
-                    if (tagNs.getName().matches("@unimplemented")){
-                        logger.warn("Scenario '"+scenario.getName()+"' ignored because it is not yet implemented.");
-                        ignoreReason=true;
-                        break;
-                    }
-                    //@manual
-                    if (tagNs.getName().matches("@manual")){
-                        logger.warn("Scenario '"+scenario.getName()+"' ignored because it is marked as manual test.");
-                        ignoreReason=true;
-                        break;
-                    }
-                    //@toocomplex
-                    if (tagNs.getName().matches("@toocomplex")){
-                        logger.warn("Scenario '"+scenario.getName()+"' ignored because the test is too complex.");
-                        ignoreReason=true;
-                        break;
-                    }
-                }
-            }
+        if (!ignoreTags.isIgnored()) {
+            pjp.proceed();
+            return;
         }
 
-        if (ignore && !ignoreReason){
+        if (ignoreTags.getReason() == null) {
             logger.error("Scenario '" + scenario.getName() + "' failed due to wrong use of the @ignore tag. ");
+        } else {
+            switch (ignoreTags.getReason()) {
+                case TILL_FIXED:
+                    logger.warn("Scenario '" + scenario.getName() + "' ignored because of Issue: " + ignoreTags.getIssue() + ".");
+                    break;
+                case UNIMPLEMENTED:
+                    logger.warn("Scenario '" + scenario.getName() + "' ignored because it is not yet implemented.");
+                    break;
+                case MANUAL:
+                    logger.warn("Scenario '" + scenario.getName() + "' ignored because it is marked as manual test.");
+                    break;
+                default:
+                    logger.warn("Scenario '" + scenario.getName() + "' ignored because the test is too complex.");
+            }
         }
 
-        if (ignore) {
-            runtime.buildBackendWorlds(reporter, tags, scenario.getName());
-            formatter.startOfScenarioLifeCycle(scenario);
-            formatter.endOfScenarioLifeCycle(scenario);
-            runtime.disposeBackendWorlds();
-        } else {
-            pjp.proceed();
+        // Reported as skipped without building the glue of the backends
+        formatter.startOfScenarioLifeCycle(scenario);
+        formatter.endOfScenarioLifeCycle(scenario);
+    }
+
+    private static MethodHandle tagsAndInheritedTags() {
+        try {
+            Method method = CucumberTagStatement.class.getDeclaredMethod("tagsAndInheritedTags");
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
         }
     }
-}
\ No newline at end of file
+}
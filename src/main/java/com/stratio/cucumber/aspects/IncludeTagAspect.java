@@ -12,11 +12,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-
-import java.nio.file.Paths;
-
 import java.util.*;
 
 @Aspect
@@ -39,20 +34,23 @@ public class IncludeTagAspect {
         path = path.substring(0, endIndex);
         String featureName;
         String scenarioName;
-        List<String> lines = Files.readAllLines(Paths.get(resource.getPath()), StandardCharsets.UTF_8);
-        String nwsource="";
+        File featureFile = new File(resource.getPath());
+        // features read from the classpath, or below a directory, have no path of their own
+        List<String> lines = featureFile.isFile() ? new ArrayList<String>(FeatureIndex.of(featureFile).getLines())
+                : readLines(resource);
+        StringBuilder nwsource = new StringBuilder();
         boolean marked = false;
         String[] params;
 
         for (int lineOriginalFeature=0; lineOriginalFeature<lines.size();lineOriginalFeature++){
             if (lines.get(lineOriginalFeature).contains("@include")) {
-                String lineToinclude="";
+                StringBuilder lineToinclude = new StringBuilder();
                 for (int linesWithInclude=lineOriginalFeature; linesWithInclude<lines.size() && lines.get(linesWithInclude).contains("@include");linesWithInclude++) {
                     featureName = getFeatureName(lines.get(linesWithInclude));
                     scenarioName = getScenName(lines.get(linesWithInclude));
                     params = getParams(lines.get(linesWithInclude));
                     lines.set(linesWithInclude, "");
-                    lineToinclude += featureStepConverter(path + featureName, scenarioName, params);
+                    lineToinclude.append(featureStepConverter(path + featureName, scenarioName, params));
                 }
 
                 //TODO: Simplify code
@@ -62,34 +60,33 @@ public class IncludeTagAspect {
                             if (lines.get(lineAfterInclude).toUpperCase().contains("BACKGROUND:") && !marked) {
                                 lines.set(lineOriginalFeature, lines.get(lineAfterInclude));
                                 lines.set(lineAfterInclude, lines.get(indexForBackground));
-                                lines.set(indexForBackground, lineToinclude);
+                                lines.set(indexForBackground, lineToinclude.toString());
                                 marked = true;
-                                lineToinclude= "";
+                                lineToinclude.setLength(0);
                                 break;
                             }
                         }
                         if (!marked) {
                             lines.set(lineOriginalFeature, lines.get(lineAfterInclude));
                             lines.set(lineAfterInclude, "\nBackground:\n" + lineToinclude);
-                            lineToinclude = "";
+                            lineToinclude.setLength(0);
                             break;
                         }
                     }
                     if ((lines.get(lineAfterInclude).toUpperCase().contains("SCENARIO:")||lines.get(lineAfterInclude).toUpperCase().contains("OUTLINE:")) && !lines.get(lineAfterInclude).toUpperCase().contains("@INCLUDE")) {
                         lines.set(lineOriginalFeature, lines.get(lineAfterInclude));
-                        lines.set(lineAfterInclude, lineToinclude);
-                        lineToinclude = "";
+                        lines.set(lineAfterInclude, lineToinclude.toString());
+                        lineToinclude.setLength(0);
                         break;
                     }
                 }
 
             }
-            nwsource += lines.get(lineOriginalFeature) + "\n";
-            logger.debug("New line written into source:\n" + lines.get(lineOriginalFeature));
+            nwsource.append(lines.get(lineOriginalFeature)).append('\n');
         }
-        logger.info("Final feature source: \n" + nwsource);
+        logger.debug("Final feature source: \n{}", nwsource);
 
-        return nwsource;
+        return nwsource.toString();
     }
 
     /**
@@ -142,57 +139,79 @@ public class IncludeTagAspect {
         return parsedFeature;
     }
 
+    /**
+     * Steps of the scenario with the given name in a feature, with the steps
+     * of the scenarios it includes in turn first, and its parameters replaced.
+     *
+     * @param feature path of the feature file
+     * @param scenarioName
+     * @param params keys and values, as returned by getParams
+     * @return String
+     * @throws IncludeException
+     */
     public String featureStepConverter(String feature, String scenarioName, String[] params) throws IncludeException {
-        boolean scenarioexists  = false;
-        BufferedReader bufferedFeature = null;
-        String parsedFeature = "";
-        String sCurrentLine;
-
+        return featureStepConverter(feature, scenarioName, params, new ArrayDeque<String>());
+    }
 
+    private List<String> readLines(Resource resource) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), "UTF-8"));
         try {
-
-            bufferedFeature = new BufferedReader(new FileReader(feature));
-            while ((sCurrentLine = bufferedFeature.readLine()) != null) {
-                if (sCurrentLine.contains(scenarioName)){
-                    scenarioexists= true;
-                    if (sCurrentLine.toUpperCase().contains("OUTLINE") && params==null){
-                        throw new IncludeException("->  Parameters were not given for this scenario outline.");
-                    }else if(sCurrentLine.toUpperCase().contains("OUTLINE")){
-                        BufferedReader auxBufferedFeature = bufferedFeature;
-                        String sParamline;
-                        while ((sParamline=auxBufferedFeature.readLine())!=null && !sParamline.toUpperCase().contains("SCENARIO")){
-                            if(sParamline.contains("|")){
-                                if (!checkParams(sParamline,params)){
-                                    throw  new IncludeException("-> Wrong number of parameters.");
-                                }
-                            }else{
-                                if(!sParamline.toUpperCase().contains("EXAMPLES:"))
-                                    parsedFeature = parsedFeature +sParamline +"\n";
-                            }
-                        }
-                    }else if(!sCurrentLine.toUpperCase().contains("OUTLINE") && sCurrentLine.toUpperCase().contains("SCENARIO:")){
-                        while ((sCurrentLine = bufferedFeature.readLine()) != null && !sCurrentLine.toUpperCase().contains("SCENARIO:") && !sCurrentLine.toUpperCase().contains("EXAMPLES:") && !sCurrentLine.contains("|")) {
-                            parsedFeature = parsedFeature + sCurrentLine + "\n";
-                        }
-                    }
-                }
-            }
-            if (!scenarioexists){
-                throw new IncludeException("-> Scenario not present at the given feature: "+scenarioName);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
             }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
 
-        } catch (FileNotFoundException e) {
+    private String featureStepConverter(String feature, String scenarioName, String[] params, Deque<String> including)
+            throws IncludeException {
+        File featureFile = new File(feature);
+        String key;
+        try {
+            // canonical, so that a/../b.feature and b.feature are the same feature
+            key = featureFile.getCanonicalPath() + "#" + scenarioName;
+        } catch (IOException e) {
+            throw new IncludeException("-> An I/O error appeared.", e);
+        }
+        if (including.contains(key)) {
+            throw new IncludeException("-> Cyclic include of scenario " + scenarioName + " at " + feature);
+        }
+        if (!featureFile.isFile()) {
             throw new IncludeException("-> Feature file were not found: "+feature);
+        }
+
+        FeatureIndex.Extract extract;
+        try {
+            extract = FeatureIndex.of(featureFile).extract(scenarioName);
         } catch (IOException e) {
-            throw new IncludeException("-> An I/O error appeared.");
-        } finally {
-            try {
-                if (bufferedFeature != null)bufferedFeature.close();
-            } catch (IOException ex) {
-                ex.printStackTrace();
+            throw new IncludeException("-> An I/O error appeared.", e);
+        }
+        if (extract.isOutline() && params==null) {
+            throw new IncludeException("->  Parameters were not given for this scenario outline.");
+        }
+        for (String exampleRow : extract.getExampleRows()) {
+            if (!checkParams(exampleRow, params)) {
+                throw new IncludeException("-> Wrong number of parameters.");
             }
         }
+        if (!extract.isFound()) {
+            throw new IncludeException("-> Scenario not present at the given feature: "+scenarioName);
+        }
+
+        StringBuilder parsed = new StringBuilder();
+        including.push(key);
+        for (String include : extract.getIncludes()) {
+            String includedFeature = new File(featureFile.getParentFile(), getFeatureName(include)).getPath();
+            parsed.append(featureStepConverter(includedFeature, getScenName(include), getParams(include), including));
+        }
+        including.pop();
+        parsed.append(extract.getSteps());
 
+        String parsedFeature = parsed.toString();
         if (params!=null) {
             parsedFeature = doReplaceKeys(parsedFeature, params);
         }
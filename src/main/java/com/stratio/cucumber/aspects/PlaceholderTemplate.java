@@ -0,0 +1,177 @@
+package com.stratio.cucumber.aspects;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A string split, in a single pass, into literal text and ${}, !{} and @{}
+ * placeholders. Placeholders may be nested, as in !{${NAME}}, and are
+ * resolved innermost first. An unclosed placeholder is kept as literal text.
+ *
+ * Templates are cached per string, so the same step text or data table cell
+ * is parsed only once, and a string without placeholders is returned as is.
+ */
+public final class PlaceholderTemplate {
+
+    public static final char ENVIRONMENT = '$';
+    public static final char REFLECTION = '!';
+    public static final char CODE = '@';
+
+    private static final int MAX_CACHED = 10000;
+    private static final ConcurrentMap<String, PlaceholderTemplate> CACHE = new ConcurrentHashMap<String, PlaceholderTemplate>();
+
+    /**
+     * Resolves the value of a placeholder.
+     */
+    public interface Resolver {
+
+        /**
+         * @param kind ENVIRONMENT, REFLECTION or CODE
+         * @param expression placeholder content, with its own placeholders
+         *            already resolved
+         * @return String
+         * @throws Exception
+         */
+        String resolve(char kind, String expression) throws Exception;
+    }
+
+    private final String source;
+    private final List<Segment> segments;
+
+    private PlaceholderTemplate(String source, List<Segment> segments) {
+        this.source = source;
+        this.segments = segments;
+    }
+
+    /**
+     * Template of a string, parsed the first time it is seen.
+     *
+     * @param source
+     * @return PlaceholderTemplate
+     */
+    public static PlaceholderTemplate compile(String source) {
+        PlaceholderTemplate template = CACHE.get(source);
+        if (template == null) {
+            template = parse(source, 0, source.length());
+            if (CACHE.size() >= MAX_CACHED) {
+                CACHE.clear();
+            }
+            CACHE.putIfAbsent(source, template);
+        }
+        return template;
+    }
+
+    /**
+     * Whether the string has no placeholders at all.
+     *
+     * @return boolean
+     */
+    public boolean isLiteral() {
+        return segments.isEmpty();
+    }
+
+    /**
+     * Replace every placeholder.
+     *
+     * @param resolver
+     * @return String
+     * @throws Exception
+     */
+    public String render(Resolver resolver) throws Exception {
+        return render(resolver, null);
+    }
+
+    /**
+     * Replace the placeholders of the given kinds, keeping the others as
+     * they are (with their nested placeholders of the given kinds replaced).
+     *
+     * @param resolver
+     * @param kinds kinds of placeholder to replace, null for all
+     * @return String
+     * @throws Exception
+     */
+    public String render(Resolver resolver, String kinds) throws Exception {
+        if (isLiteral()) {
+            return source;
+        }
+        StringBuilder sb = new StringBuilder(source.length());
+        for (Segment segment : segments) {
+            if (segment.expression == null) {
+                sb.append(segment.text);
+                continue;
+            }
+            String expression = segment.expression.render(resolver, kinds);
+            if (kinds == null || kinds.indexOf(segment.kind) >= 0) {
+                sb.append(resolver.resolve(segment.kind, expression));
+            } else {
+                sb.append(segment.kind).append('{').append(expression).append('}');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static PlaceholderTemplate parse(String source, int from, int to) {
+        List<Segment> segments = new ArrayList<Segment>();
+        int literalStart = from;
+        int i = from;
+        while (i < to - 1) {
+            char c = source.charAt(i);
+            if ((c == ENVIRONMENT || c == REFLECTION || c == CODE) && source.charAt(i + 1) == '{') {
+                int end = closingBrace(source, i + 2, to);
+                if (end < 0) {
+                    break;
+                }
+                if (literalStart < i) {
+                    segments.add(new Segment(source.substring(literalStart, i)));
+                }
+                segments.add(new Segment(c, parse(source, i + 2, end)));
+                i = end + 1;
+                literalStart = i;
+            } else {
+                i++;
+            }
+        }
+        if (segments.isEmpty()) {
+            return new PlaceholderTemplate(source.substring(from, to), Collections.<Segment> emptyList());
+        }
+        if (literalStart < to) {
+            segments.add(new Segment(source.substring(literalStart, to)));
+        }
+        return new PlaceholderTemplate(source.substring(from, to), segments);
+    }
+
+    private static int closingBrace(String source, int from, int to) {
+        int depth = 1;
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Segment {
+
+        private final char kind;
+        private final String text;
+        private final PlaceholderTemplate expression;
+
+        private Segment(String text) {
+            this.kind = 0;
+            this.text = text;
+            this.expression = null;
+        }
+
+        private Segment(char kind, PlaceholderTemplate expression) {
+            this.kind = kind;
+            this.text = null;
+            this.expression = expression;
+        }
+    }
+}
@@ -9,21 +9,13 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
-import org.reflections.Reflections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Field;
-import java.net.Inet4Address;
-import java.net.InetAddress;
-import java.net.NetworkInterface;
 import java.util.ArrayList;
-import java.util.Enumeration;
 import java.util.List;
-import java.util.Set;
-import java.util.Map;
 
-import com.stratio.cucumber.testng.CucumberReporter;
+import com.stratio.tests.utils.HostResolver;
 import com.stratio.tests.utils.ThreadProperty;
 
 @Aspect
@@ -57,29 +49,18 @@ public class ReplacementAspect {
 
 	@Around(value = "replacementCallPointcut(arguments, stepDefinition, featurePath, step, localizedXStreams)")
 	public Object aroundReplacementCalls(ProceedingJoinPoint pjp, List<Argument> arguments, StepDefinition stepDefinition, String featurePath, Step step, LocalizedXStreams localizedXStreams) throws Throwable {
-	    if (arguments.size() > 0) {
+	    if (arguments != null && arguments.size() > 0) {
 			List<Argument> myArguments = new ArrayList<Argument>();
-			if (arguments != null) {
-		    	for (Argument arg: arguments) {
-					if (arg.getVal() != null) {
-			    		String value = arg.getVal();
-			    		if (value.contains("${")) {
-							value = replaceEnvironmentPlaceholders(value);
-			    		}
-			    		if (value.contains("!{")) {
-							value = replaceReflectionPlaceholders(value);
-			    		}
-						if (value.contains("@{")) {
-							value = replaceCodePlaceholders(value);
-			    		}
-			    		Argument myArg = new Argument(arg.getOffset(), value);
-			    		myArguments.add(myArg);
-					} else {
-			    		myArguments.add(arg);
-					}
-		    	}
-		    	arguments = myArguments;
+			for (Argument arg: arguments) {
+				String value = arg.getVal();
+				PlaceholderTemplate template = value == null ? null : PlaceholderTemplate.compile(value);
+				if (template != null && !template.isLiteral()) {
+					myArguments.add(new Argument(arg.getOffset(), template.render(resolver)));
+				} else {
+					myArguments.add(arg);
+				}
 			}
+			arguments = myArguments;
 	    }
 	    // Proceed with new modified params
 	    Object[] myArray = {arguments, stepDefinition, featurePath, modifyStep(step), localizedXStreams};
@@ -88,54 +69,61 @@ public class ReplacementAspect {
 
 
 	protected Step modifyStep(Step step) throws Exception {
-		Step newStep = step;
-
-		if (step != null) {
-		    // Modify line
-		    String stepName = step.getName();
+		if (step == null) {
+			return null;
+		}
 
-		    if (stepName.contains("${")) {
-			stepName = replaceEnvironmentPlaceholders(stepName);
-		    }
-		    if (stepName.contains("!{")) {
-			stepName = replaceReflectionPlaceholders(stepName);
-		    }
-			if (stepName.contains("@{")) {
-			stepName = replaceCodePlaceholders(stepName);
-		    }
+		// Modify line
+		PlaceholderTemplate nameTemplate = PlaceholderTemplate.compile(step.getName());
+		boolean modified = !nameTemplate.isLiteral();
+		String stepName = nameTemplate.render(resolver);
 
-		    // Modify datatable
-		    List<DataTableRow> stepRows = step.getRows();
+		// Modify datatable
+		List<DataTableRow> stepRows = step.getRows();
 
-		    List<DataTableRow> myRows = null;
-		    if (stepRows != null) {
-				DataTableRow myRow;
-				myRows =  new ArrayList<DataTableRow>();
-				for (DataTableRow row: stepRows) {
-			    	List<String> cells = row.getCells();
-			    	List<String> myCells = new ArrayList<String>();
-			    	for (String cell: cells) {
-						if (cell.contains("${")) {
-				    		cell = replaceEnvironmentPlaceholders(cell);
+		List<DataTableRow> myRows = null;
+		if (stepRows != null) {
+			myRows = new ArrayList<DataTableRow>(stepRows.size());
+			for (DataTableRow row: stepRows) {
+				List<String> cells = row.getCells();
+				List<String> myCells = null;
+				for (int i = 0; i < cells.size(); i++) {
+					PlaceholderTemplate cellTemplate = PlaceholderTemplate.compile(cells.get(i));
+					if (!cellTemplate.isLiteral()) {
+						if (myCells == null) {
+							myCells = new ArrayList<String>(cells);
 						}
-						if (cell.contains("!{")) {
-				    		cell = replaceReflectionPlaceholders(cell);
-						}
-						if (cell.contains("@{")) {
-				    		cell = replaceCodePlaceholders(cell);
-						}
-						myCells.add(cell);
-			    	}
-			    	myRow = new DataTableRow(row.getComments(), myCells, row.getLine());
-			    	myRows.add(myRow);
+						myCells.set(i, cellTemplate.render(resolver));
+					}
 				}
-		    }
+				if (myCells == null) {
+					myRows.add(row);
+				} else {
+					myRows.add(new DataTableRow(row.getComments(), myCells, row.getLine()));
+					modified = true;
+				}
+			}
+		}
 
-		    // Redefine step
-		    newStep = new Step(step.getComments(), step.getKeyword(), stepName, step.getLine(), myRows, step.getDocString());
+		if (!modified) {
+			return step;
 		}
+		// Redefine step
+		return new Step(step.getComments(), step.getKeyword(), stepName, step.getLine(), myRows, step.getDocString());
+	}
 
-		return newStep;
+	/**
+	 * Replaces every placeholded element, enclosed in ${}, !{} or @{}, in a
+	 * single pass. Placeholders can be nested, as in !{${NAME}}.
+	 *
+	 * @param element
+	 *
+	 * @return String
+	 *
+	 * @throws Exception
+	 */
+	protected String replacePlaceholders(String element) throws Exception {
+		return PlaceholderTemplate.compile(element).render(resolver);
 	}
 
 	/**
@@ -144,6 +132,10 @@ public class ReplacementAspect {
 	 *
 	 * If the element starts with:
 	 * 	- IP: We expect it to be followed by '.' + interface name (i.e. IP.eth0). It can contain other replacements.
+	 * 	- IPV6: Same as IP, with the IPv6 address of the interface.
+	 * 	- HOSTNAME: Name of the local host.
+	 * 	- CANONICAL_HOSTNAME: Fully qualified name of the local host.
+	 * 	- FREE_PORT: We expect it to be followed by '.' + a name (i.e. FREE_PORT.http). A free local port, the same for a name during the run.
 	 *
 	 * @param element
 	 *
@@ -152,41 +144,7 @@ public class ReplacementAspect {
 	 * @throws Exception
 	 */
 	protected String replaceCodePlaceholders(String element) throws Exception {
-		String newVal = element;
-		while (newVal.contains("@{")) {
-			String placeholder = newVal.substring(newVal.indexOf("@{"),
-					newVal.indexOf("}") + 1);
-			String property = placeholder.substring(2, placeholder.length() - 1);
-			String subproperty = "";
-			if (placeholder.contains(".")) {
-				property = placeholder.substring(2, placeholder.indexOf("."));
-				subproperty = placeholder.substring(placeholder.indexOf(".") + 1, placeholder.length() - 1);
-			} else {
-				throw new Exception("Interface not defined");
-			}
-
-			switch (property) {
-				case "IP":
-					boolean found = false;
-					if (!subproperty.isEmpty()) {
-						Enumeration<InetAddress> ifs = NetworkInterface.getByName(subproperty).getInetAddresses();
-						while (ifs.hasMoreElements() && !found) {
-							InetAddress itf = ifs.nextElement();
-							if (itf instanceof Inet4Address) {
-								newVal = itf.getHostAddress();
-								found = true;
-							}
-						}
-					}
-					if (!found) {
-						throw new Exception("Interface " + subproperty + " not available" );
-					}
-					break;
-				default:
-					throw new Exception("Property not defined");
-			}
-		}
-		return newVal;
+		return PlaceholderTemplate.compile(element).render(resolver, String.valueOf(PlaceholderTemplate.CODE));
 	}
 
 
@@ -198,26 +156,10 @@ public class ReplacementAspect {
 	 * 
 	 * @return String
 	 * 
-	 * @throws ClassNotFoundException
-	 * @throws NoSuchFieldException
-	 * @throws SecurityException
-	 * @throws IllegalArgumentException
-	 * @throws IllegalAccessException
+	 * @throws Exception
 	 */
-	protected String replaceReflectionPlaceholders(String element) throws ClassNotFoundException, NoSuchFieldException, SecurityException, IllegalArgumentException, IllegalAccessException {
-		String newVal = element;
-		while (newVal.contains("!{")) {
-			String placeholder = newVal.substring(newVal.indexOf("!{"),
-					newVal.indexOf("}") + 1);
-			String attribute = placeholder.substring(2, placeholder.length() - 1);
-
-			// we want to use value previously saved
-			String prop = ThreadProperty.get(attribute);
-
-			newVal = newVal.replace(placeholder, prop);
-		}
-
-		return newVal;
+	protected String replaceReflectionPlaceholders(String element) throws Exception {
+		return PlaceholderTemplate.compile(element).render(resolver, String.valueOf(PlaceholderTemplate.REFLECTION));
 	}
 	
 	
@@ -230,31 +172,92 @@ public class ReplacementAspect {
 	 * @return String
 	 */
 	protected String replaceEnvironmentPlaceholders(String element) {
-		String newVal = element;
-		while (newVal.contains("${")) {
-			String placeholder = newVal.substring(newVal.indexOf("${"),
-					newVal.indexOf("}") + 1);
-			String modifier = "";
-			String sysProp = "";
-			if (placeholder.contains(".")) {
-				sysProp = placeholder.substring(2, placeholder.indexOf("."));
-				modifier = placeholder.substring(placeholder.indexOf(".") + 1,
-						placeholder.length() - 1);
-			} else {
-				sysProp = placeholder.substring(2, placeholder.length() - 1);
-			}
+		try {
+			return PlaceholderTemplate.compile(element).render(resolver, String.valueOf(PlaceholderTemplate.ENVIRONMENT));
+		} catch (Exception e) {
+			// environment placeholders are never unresolvable
+			throw new IllegalStateException(e);
+		}
+	}
 
-			String prop = "";
-			if ("toLower".equals(modifier)) {
-				prop = System.getProperty(sysProp, "").toLowerCase();
-			} else if ("toUpper".equals(modifier)) {
-				prop = System.getProperty(sysProp, "").toUpperCase();
-			} else {
-				prop = System.getProperty(sysProp, "");
+	private final PlaceholderTemplate.Resolver resolver = new PlaceholderTemplate.Resolver() {
+		@Override
+		public String resolve(char kind, String expression) throws Exception {
+			switch (kind) {
+				case PlaceholderTemplate.ENVIRONMENT:
+					return environmentValue(expression);
+				case PlaceholderTemplate.REFLECTION:
+					// we want to use value previously saved
+					return reflectionValue(expression);
+				default:
+					return codeValue(expression);
 			}
-			newVal = newVal.replace(placeholder, prop);
+		}
+	};
+
+	private String reflectionValue(String attribute) throws Exception {
+		String value = ThreadProperty.get(attribute);
+		if (value == null) {
+			throw new Exception("Attribute " + attribute + " not saved");
+		}
+		return value;
+	}
+
+	private String codeValue(String expression) throws Exception {
+		String property = expression;
+		String subproperty = "";
+		if (expression.contains(".")) {
+			property = expression.substring(0, expression.indexOf("."));
+			subproperty = expression.substring(expression.indexOf(".") + 1);
 		}
 
-		return newVal;
-	}	
-}
\ No newline at end of file
+		String value;
+		switch (property) {
+			case "IP":
+				value = HostResolver.INSTANCE.getIPv4(interfaceName(subproperty));
+				break;
+			case "IPV6":
+				value = HostResolver.INSTANCE.getIPv6(interfaceName(subproperty));
+				break;
+			case "HOSTNAME":
+				value = HostResolver.INSTANCE.getHostName();
+				break;
+			case "CANONICAL_HOSTNAME":
+				value = HostResolver.INSTANCE.getCanonicalHostName();
+				break;
+			case "FREE_PORT":
+				return String.valueOf(HostResolver.INSTANCE.getFreePort(subproperty));
+			default:
+				throw new Exception("Property not defined");
+		}
+		if (value == null) {
+			throw new Exception(subproperty.isEmpty() ? "Property " + property + " not available" : "Interface "
+					+ subproperty + " not available");
+		}
+		return value;
+	}
+
+	private String interfaceName(String subproperty) throws Exception {
+		if (subproperty.isEmpty()) {
+			throw new Exception("Interface not defined");
+		}
+		return subproperty;
+	}
+
+	private String environmentValue(String expression) {
+		String modifier = "";
+		String sysProp = expression;
+		if (expression.contains(".")) {
+			sysProp = expression.substring(0, expression.indexOf("."));
+			modifier = expression.substring(expression.indexOf(".") + 1);
+		}
+
+		if ("toLower".equals(modifier)) {
+			return System.getProperty(sysProp, "").toLowerCase();
+		} else if ("toUpper".equals(modifier)) {
+			return System.getProperty(sysProp, "").toUpperCase();
+		} else {
+			return System.getProperty(sysProp, "");
+		}
+	}
+}
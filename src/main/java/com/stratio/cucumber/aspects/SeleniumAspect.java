@@ -26,7 +26,9 @@ public class SeleniumAspect extends BaseGSpec {
 	private final Logger logger = LoggerFactory.getLogger(this.getClass()
 			.getCanonicalName());
 
-	@Pointcut("call(* com.stratio.assertions.SeleniumAssert.*(..))"
+	// execution, so assertions in the step definitions of the projects using
+	// the library are advised with compile-time weaving too
+	@Pointcut("execution(* com.stratio.assertions.SeleniumAssert.*(..))"
 			+ " || call(* org.openqa.selenium.*.click(..))"
 			+ " || call(* org.openqa.selenium.*.findElement(..))")
 	protected void exceptionCallPointcut() {
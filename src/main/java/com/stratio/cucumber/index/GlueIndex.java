@@ -0,0 +1,110 @@
+package com.stratio.cucumber.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Glue packages and formatters of every jar or directory in the classpath, as
+ * indexed at compile time by {@link GlueIndexProcessor}.
+ *
+ * bdt-lib ships its own index, so the entries of the projects using it are
+ * told apart: a project compiled without annotation processing (with
+ * -proc:none, or by some IDEs) has none.
+ */
+public final class GlueIndex {
+
+    public static final String INDEX_RESOURCE = "META-INF/stratio/glue.idx";
+    public static final String GLUE_PREFIX = "glue:";
+    public static final String FORMATTER_PREFIX = "formatter:";
+    public static final String GLUE_CLASS_PREFIX = "glueclass:";
+
+    private final Set<String> gluePackages = new LinkedHashSet<String>();
+    private final Set<String> formatters = new LinkedHashSet<String>();
+    private boolean consumerEntries;
+
+    private GlueIndex() {
+    }
+
+    /**
+     * Read and merge every index visible to the given class loader.
+     *
+     * @param classLoader
+     * @return GlueIndex
+     * @throws IOException
+     */
+    public static GlueIndex load(ClassLoader classLoader) throws IOException {
+        GlueIndex index = new GlueIndex();
+        String ownIndex = ownIndex();
+        Enumeration<URL> resources = classLoader.getResources(INDEX_RESOURCE);
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            boolean own = resource.toExternalForm().equals(ownIndex);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(),
+                    StandardCharsets.UTF_8));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.startsWith(GLUE_PREFIX)) {
+                        index.gluePackages.add(line.substring(GLUE_PREFIX.length()));
+                        index.consumerEntries |= !own;
+                    } else if (line.startsWith(FORMATTER_PREFIX)) {
+                        index.formatters.add(line.substring(FORMATTER_PREFIX.length()));
+                        index.consumerEntries |= !own;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Index shipped in the same jar or directory as this class.
+     */
+    private static String ownIndex() {
+        String self = GlueIndex.class.getName().replace('.', '/') + ".class";
+        String location = GlueIndex.class.getClassLoader().getResource(self).toExternalForm();
+        return location.substring(0, location.length() - self.length()) + INDEX_RESOURCE;
+    }
+
+    public boolean isEmpty() {
+        return gluePackages.isEmpty() && formatters.isEmpty();
+    }
+
+    /**
+     * Whether any index other than the one shipped with bdt-lib lists glue or
+     * formatters.
+     *
+     * @return boolean
+     */
+    public boolean hasConsumerEntries() {
+        return consumerEntries;
+    }
+
+    /**
+     * Glue paths, in the classpath:package/path form expected by cucumber.
+     *
+     * @return List<String>
+     */
+    public List<String> getGlue() {
+        List<String> glue = new ArrayList<String>();
+        for (String gluePackage : gluePackages) {
+            glue.add("classpath:" + gluePackage.replace('.', '/'));
+        }
+        return glue;
+    }
+
+    public Set<String> getFormatters() {
+        return formatters;
+    }
+}
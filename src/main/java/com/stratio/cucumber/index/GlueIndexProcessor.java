@@ -0,0 +1,179 @@
+package com.stratio.cucumber.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor writing, at compile time, the index read by
+ * {@link GlueIndex}: packages declaring step definitions or hooks, and
+ * classes implementing ICucumberFormatter.
+ *
+ * It is registered as a service, so any project compiled with bdt-lib in its
+ * classpath gets its own index without further configuration.
+ *
+ * The classes declaring glue are indexed too, so that an incremental
+ * compilation, which only sees the classes being recompiled, keeps the
+ * entries of the index already in the output that belong to other classes.
+ */
+@SupportedAnnotationTypes("*")
+public class GlueIndexProcessor extends AbstractProcessor {
+
+    public static final String STEP_DEF_ANNOTATION = "cucumber.runtime.java.StepDefAnnotation";
+    public static final String BEFORE_ANNOTATION = "cucumber.api.java.Before";
+    public static final String AFTER_ANNOTATION = "cucumber.api.java.After";
+    public static final String FORMATTER_INTERFACE = "com.stratio.cucumber.testng.ICucumberFormatter";
+
+    private final Set<String> glueClasses = new TreeSet<String>();
+    private final Set<String> formatters = new TreeSet<String>();
+    private final Set<String> compiled = new HashSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+
+        TypeElement formatter = processingEnv.getElementUtils().getTypeElement(FORMATTER_INTERFACE);
+        for (Element root : roundEnv.getRootElements()) {
+            if (root instanceof TypeElement) {
+                compiled.add(((TypeElement) root).getQualifiedName().toString());
+                scan((TypeElement) root, (TypeElement) root, formatter);
+            }
+        }
+        return false;
+    }
+
+    private void scan(TypeElement root, TypeElement type, TypeElement formatter) {
+        if (formatter != null && type.getKind() == ElementKind.CLASS
+                && !type.getModifiers().contains(Modifier.ABSTRACT) && type.getModifiers().contains(Modifier.PUBLIC)) {
+            TypeMirror erasure = processingEnv.getTypeUtils().erasure(type.asType());
+            if (processingEnv.getTypeUtils().isAssignable(erasure, formatter.asType())) {
+                formatters.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+            }
+        }
+
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.METHOD && isGlue(enclosed)) {
+                glueClasses.add(root.getQualifiedName().toString());
+            } else if (enclosed instanceof TypeElement) {
+                scan(root, (TypeElement) enclosed, formatter);
+            }
+        }
+    }
+
+    private boolean isGlue(Element method) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            Element annotation = mirror.getAnnotationType().asElement();
+            String name = ((TypeElement) annotation).getQualifiedName().toString();
+            if (BEFORE_ANNOTATION.equals(name) || AFTER_ANNOTATION.equals(name)) {
+                return true;
+            }
+            for (AnnotationMirror meta : annotation.getAnnotationMirrors()) {
+                if (STEP_DEF_ANNOTATION.equals(meta.getAnnotationType().toString())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add the entries of the index left in the output by a previous
+     * compilation, but the ones of classes recompiled now, which have just
+     * been scanned, or not found anymore.
+     *
+     * @return whether there was a previous index
+     */
+    private boolean mergePreviousIndex() {
+        try {
+            FileObject previous = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    GlueIndex.INDEX_RESOURCE);
+            BufferedReader reader = new BufferedReader(previous.openReader(true));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.startsWith(GlueIndex.GLUE_CLASS_PREFIX)) {
+                        String glueClass = line.substring(GlueIndex.GLUE_CLASS_PREFIX.length());
+                        if (!isStale(glueClass)) {
+                            glueClasses.add(glueClass);
+                        }
+                    } else if (line.startsWith(GlueIndex.FORMATTER_PREFIX)) {
+                        String formatterClass = line.substring(GlueIndex.FORMATTER_PREFIX.length());
+                        if (!isStale(formatterClass)) {
+                            formatters.add(formatterClass);
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+            return true;
+        } catch (IOException e) {
+            // no previous index, as in a full compilation
+            return false;
+        }
+    }
+
+    private boolean isStale(String binaryName) {
+        String topLevel = binaryName.contains("$") ? binaryName.substring(0, binaryName.indexOf('$')) : binaryName;
+        return compiled.contains(topLevel)
+                || processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.')) == null;
+    }
+
+    private void writeIndex() {
+        boolean previous = mergePreviousIndex();
+        if (glueClasses.isEmpty() && formatters.isEmpty() && !previous) {
+            return;
+        }
+        Set<String> gluePackages = new TreeSet<String>();
+        for (String glueClass : glueClasses) {
+            gluePackages.add(glueClass.contains(".") ? glueClass.substring(0, glueClass.lastIndexOf('.')) : "");
+        }
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    GlueIndex.INDEX_RESOURCE);
+            Writer writer = index.openWriter();
+            try {
+                for (String gluePackage : gluePackages) {
+                    writer.write(GlueIndex.GLUE_PREFIX + gluePackage + "\n");
+                }
+                for (String formatterClass : formatters) {
+                    writer.write(GlueIndex.FORMATTER_PREFIX + formatterClass + "\n");
+                }
+                for (String glueClass : glueClasses) {
+                    writer.write(GlueIndex.GLUE_CLASS_PREFIX + glueClass + "\n");
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Unable to write glue index: " + e.getMessage());
+        }
+    }
+}
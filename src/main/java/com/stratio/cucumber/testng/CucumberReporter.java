@@ -1,44 +1,66 @@
 package com.stratio.cucumber.testng;
 
-import com.stratio.tests.utils.ThreadProperty;
+import com.stratio.tests.utils.ExecutionsOutput;
 import cucumber.runtime.CucumberException;
+import cucumber.runtime.StepDefinitionMatch;
 import cucumber.runtime.Utils;
 import cucumber.runtime.io.URLOutputStream;
 import cucumber.runtime.io.UTF8OutputStreamWriter;
 import gherkin.formatter.Formatter;
 import gherkin.formatter.Reporter;
 import gherkin.formatter.model.*;
-import org.w3c.dom.*;
-
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TESTNG and JUNIT xml reporter.
+ *
+ * Every scenario is written to a .part file of its feature as soon as it
+ * ends, so memory does not grow with the suite and the reports of the
+ * scenarios already run survive a crash. When the run is done, the reports are
+ * assembled from those files, by feature path, with the totals in the root
+ * elements, gzipped (TESTNG.xml.gz and JUNIT.xml.gz) if REPORTS_GZIP is set.
+ *
+ * A reporter instance expects the events of one scenario at a time, but the
+ * scenarios of a feature do not need to be reported together. Parallel runs
+ * buffer the events of every scenario in its worker and replay them from a
+ * single thread as scenarios complete (see ParallelRuntime).
+ */
 public class CucumberReporter implements Formatter, Reporter {
     public static final int DURATION_STRING = 1000000;
     public static final int DEFAULT_LENGTH = 11;
     public static final int DEFAULT_MAX_LENGTH = 140;
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+        }
+    };
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
     private final Writer writer, writerJunit;
-    private final Document document, jUnitDocument;
-    private final Element results, jUnitResults;
-    private final Element suite, jUnitSuite;
-    private final Element test, jUnitTest;
-    private Element clazz;
-    private Element root, jUnitRoot;
+    private final String partPrefix;
+    private final Map<String, FeaturePart> parts = new TreeMap<String, FeaturePart>();
+    private FeaturePart part;
+    private final ReportTotals totals = new ReportTotals();
     private TestMethod testMethod;
     private Examples tmpExamples;
     private List<Result> tmpHooks = new ArrayList<Result>();
@@ -48,6 +70,13 @@ public class CucumberReporter implements Formatter, Reporter {
     private Integer position = 0;
     private String callerClass;
     private Background background;
+    private String uri;
+    private Integer outlineLine;
+    private final DurationHistory durationHistory;
+    private final FailedScenarios failedScenarios;
+    private final StepStatistics stepStatistics;
+    private final EmbeddingStore embeddingStore;
+    private String stepPattern;
     private static final String STATUS = "status";
     long time_start, time_end;
     String featureName;
@@ -60,45 +89,79 @@ public class CucumberReporter implements Formatter, Reporter {
      * @throws IOException
      */
     public CucumberReporter(String url, String cClass, String additional) throws IOException {
-        this.writer = new UTF8OutputStreamWriter(new URLOutputStream(Utils.toURL(url + cClass + additional
-                + "TESTNG.xml")));
-        this.writerJunit = new UTF8OutputStreamWriter(new URLOutputStream(Utils.toURL(url + cClass + additional
-                + "JUNIT.xml")));
+        this.writer = reportWriter(url + cClass + additional + "TESTNG.xml");
+        this.writerJunit = reportWriter(url + cClass + additional + "JUNIT.xml");
+        this.durationHistory = new DurationHistory(new File(url + cClass + additional + "DURATIONS.properties"));
+        this.failedScenarios = new FailedScenarios(new File(url + cClass + additional + "FAILED.txt"));
+        this.stepStatistics = new StepStatistics(new File(url + cClass + additional + "STEPS.json"));
+        this.embeddingStore = new EmbeddingStore(new File(url + "embeddings"));
+        this.partPrefix = url + cClass + additional;
         TestMethod.treatSkippedAsFailure = false;
-        try {
-            document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
-            results = document.createElement("testng-results");
-            suite = document.createElement("suite");
-            test = document.createElement("test");
-            callerClass = cClass;
-            suite.appendChild(test);
-            results.appendChild(suite);
-            document.appendChild(results);
-            jUnitDocument = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
-            jUnitResults = jUnitDocument.createElement("testsuites");
-            jUnitSuite = jUnitDocument.createElement("testsuite");
-            jUnitTest = jUnitDocument.createElement("testcase");
-            jUnitDocument.appendChild(jUnitResults);
-            jUnitResults.appendChild(jUnitSuite);
-        } catch (ParserConfigurationException e) {
-            throw new CucumberException("Error initializing DocumentBuilder.", e);
+        callerClass = cClass;
+    }
+
+    private static Writer reportWriter(String path) throws IOException {
+        if (ExecutionsOutput.gzipReports()) {
+            return new OutputStreamWriter(ExecutionsOutput.open(new File(path + ExecutionsOutput.GZIP_EXTENSION)),
+                    StandardCharsets.UTF_8);
         }
+        return new UTF8OutputStreamWriter(new URLOutputStream(Utils.toURL(path)));
     }
 
     @Override
     public void syntaxError(String state, String event, List<String> legalEvents, String uri, Integer line) {
     }
 
+    /**
+     * Durations of the scenarios reported, persisted when the run is done.
+     * 
+     * @return DurationHistory
+     */
+    public DurationHistory getDurationHistory() {
+        return durationHistory;
+    }
+
+    /**
+     * Scenarios failed in the previous run, and the ones failing in this one,
+     * persisted when the run is done.
+     * 
+     * @return FailedScenarios
+     */
+    public FailedScenarios getFailedScenarios() {
+        return failedScenarios;
+    }
+
     @Override
     public void uri(String uri) {
+        this.uri = uri;
     }
 
     @Override
     public void feature(Feature feature) {
         featureName = feature.getName();
-        clazz = document.createElement("class");
-        clazz.setAttribute("name", callerClass);
-        test.appendChild(clazz);
+        closePart();
+        part = parts.get(uri);
+        if (part == null) {
+            part = new FeaturePart(new File(partPrefix + "TESTNG.xml." + parts.size() + ".part"), new File(
+                    partPrefix + "JUNIT.xml." + parts.size() + ".part"));
+            parts.put(uri, part);
+        }
+        try {
+            part.open();
+        } catch (XMLStreamException | IOException e) {
+            throw new CucumberException("Error initializing XMLStreamWriter.", e);
+        }
+    }
+
+    private void closePart() {
+        if (part != null) {
+            try {
+                part.close();
+            } catch (XMLStreamException | IOException e) {
+                throw new CucumberException("Error writing report.", e);
+            }
+            part = null;
+        }
     }
 
     @Override
@@ -108,6 +171,7 @@ public class CucumberReporter implements Formatter, Reporter {
     @Override
     public void scenarioOutline(ScenarioOutline scenarioOutline) {
         iteration = 1;
+        outlineLine = scenarioOutline.getLine();
     }
 
     @Override
@@ -117,10 +181,6 @@ public class CucumberReporter implements Formatter, Reporter {
 
     @Override
     public void startOfScenarioLifeCycle(Scenario scenario) {
-        root = document.createElement("test-method");
-        jUnitRoot = jUnitDocument.createElement("testcase");
-        jUnitSuite.appendChild(jUnitRoot);
-        clazz.appendChild(root);
         testMethod = new TestMethod(scenario);
         testMethod.hooks = tmpHooks;
         tmpStepsBG.clear();
@@ -132,7 +192,7 @@ public class CucumberReporter implements Formatter, Reporter {
             testMethod.stepsbg = tmpStepsBG;
         }
         testMethod.examplesData = tmpExamples;
-        testMethod.start(root, iteration, jUnitRoot);
+        testMethod.start(iteration);
         iteration++;
     }
 
@@ -162,7 +222,22 @@ public class CucumberReporter implements Formatter, Reporter {
 
         List<Tag> tags = scenario.getTags();
 
-        testMethod.finish(document, root, this.position, tags, jUnitDocument, jUnitRoot);
+        Integer line = tmpExamples == null ? scenario.getLine() : outlineLine;
+        String id = uri + ":" + line;
+        double duration = testMethod.calculateTotalDurationString();
+        durationHistory.record(id, duration);
+        String status;
+        try {
+            status = testMethod.finish(part.xml, part.xmlJunit, callerClass, tags);
+            part.xml.flush();
+            part.xmlJunit.flush();
+        } catch (XMLStreamException e) {
+            throw new CucumberException("Error writing report.", e);
+        }
+        totals.add(status, duration);
+        if ("FAIL".equals(status)) {
+            failedScenarios.record(id);
+        }
         this.position++;
         if ((tmpExamples != null) && (iteration >= tmpExamples.getRows().size())) {
             tmpExamples = null;
@@ -171,50 +246,104 @@ public class CucumberReporter implements Formatter, Reporter {
         tmpSteps.clear();
         tmpStepsBG.clear();
         testMethod = null;
-        jUnitRoot.setAttribute("classname", callerClass);
     }
 
     @Override
     public void eof() {
+        closePart();
     }
 
     @Override
     public void done() {
+        closePart();
         try {
-            results.setAttribute("total", String.valueOf(getElementsCountByAttribute(suite, STATUS, ".*")));
-            results.setAttribute("passed", String.valueOf(getElementsCountByAttribute(suite, STATUS, "PASS")));
-            results.setAttribute("failed", String.valueOf(getElementsCountByAttribute(suite, STATUS, "FAIL")));
-            results.setAttribute("skipped", String.valueOf(getElementsCountByAttribute(suite, STATUS, "SKIP")));
-            suite.setAttribute("name", CucumberReporter.class.getName());
-            suite.setAttribute("duration-ms",
-                    String.valueOf(getTotalDuration(suite.getElementsByTagName("test-method"))));
-            test.setAttribute("name", CucumberReporter.class.getName());
-            test.setAttribute("duration-ms",
-                    String.valueOf(getTotalDuration(suite.getElementsByTagName("test-method"))));
-
-            Transformer transformer = TransformerFactory.newInstance().newTransformer();
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            StreamResult streamResult = new StreamResult(writer);
-            DOMSource domSource = new DOMSource(document);
-            transformer.transform(domSource, streamResult);
-            jUnitSuite.setAttribute("name", callerClass + "." + featureName);
-            jUnitSuite.setAttribute("tests", String.valueOf(getElementsCountByAttribute(suite, STATUS, ".*")));
-            jUnitSuite.setAttribute("failures", String.valueOf(getElementsCountByAttribute(suite, STATUS, "FAIL")));
-            jUnitSuite.setAttribute("skipped", String.valueOf(getElementsCountByAttribute(suite, STATUS, "SKIP")));
-            jUnitSuite.setAttribute("timestamp", new java.util.Date().toString());
-            jUnitSuite.setAttribute("time",
-                    String.valueOf(getTotalDurationMs(suite.getElementsByTagName("test-method"))));
-            Transformer transformerJunit = TransformerFactory.newInstance().newTransformer();
-            transformerJunit.setOutputProperty(OutputKeys.INDENT, "yes");
-            StreamResult streamResultJunit = new StreamResult(writerJunit);
-            DOMSource domSourceJunit = new DOMSource(jUnitDocument);
-            transformerJunit.transform(domSourceJunit, streamResultJunit);
-
-        } catch (TransformerException e) {
-            throw new CucumberException("Error transforming report.", e);
+
+            XMLStreamWriter report = XML_OUTPUT_FACTORY.createXMLStreamWriter(writer);
+            report.writeStartDocument("UTF-8", "1.0");
+            report.writeCharacters("\n");
+            report.writeStartElement("testng-results");
+            report.writeAttribute("total", String.valueOf(totals.getTotal()));
+            report.writeAttribute("passed", String.valueOf(totals.getPassed()));
+            report.writeAttribute("failed", String.valueOf(totals.getFailed()));
+            report.writeAttribute("skipped", String.valueOf(totals.getSkipped()));
+            report.writeCharacters("\n");
+            report.writeStartElement("suite");
+            report.writeAttribute("name", CucumberReporter.class.getName());
+            report.writeAttribute("duration-ms", String.valueOf(totals.getDurationMs()));
+            report.writeCharacters("\n");
+            report.writeStartElement("test");
+            report.writeAttribute("name", CucumberReporter.class.getName());
+            report.writeAttribute("duration-ms", String.valueOf(totals.getDurationMs()));
+            report.writeCharacters("\n");
+            for (FeaturePart featurePart : parts.values()) {
+                report.writeStartElement("class");
+                report.writeAttribute("name", callerClass);
+                report.writeCharacters("\n");
+                report.flush();
+                copy(featurePart.testng, writer);
+                report.writeEndElement();
+                report.writeCharacters("\n");
+            }
+            report.writeEndElement();
+            report.writeCharacters("\n");
+            report.writeEndElement();
+            report.writeCharacters("\n");
+            report.writeEndElement();
+            report.writeEndDocument();
+            report.close();
+            writer.close();
+
+            XMLStreamWriter reportJunit = XML_OUTPUT_FACTORY.createXMLStreamWriter(writerJunit);
+            reportJunit.writeStartDocument("UTF-8", "1.0");
+            reportJunit.writeCharacters("\n");
+            reportJunit.writeStartElement("testsuites");
+            reportJunit.writeCharacters("\n");
+            reportJunit.writeStartElement("testsuite");
+            reportJunit.writeAttribute("name", callerClass + "." + featureName);
+            reportJunit.writeAttribute("tests", String.valueOf(totals.getTotal()));
+            reportJunit.writeAttribute("failures", String.valueOf(totals.getFailed()));
+            reportJunit.writeAttribute("skipped", String.valueOf(totals.getSkipped()));
+            reportJunit.writeAttribute("timestamp", new java.util.Date().toString());
+            reportJunit.writeAttribute("time", String.valueOf(totals.getDurationMs() / 1000));
+            reportJunit.writeCharacters("\n");
+            reportJunit.flush();
+            for (FeaturePart featurePart : parts.values()) {
+                copy(featurePart.junit, writerJunit);
+            }
+            reportJunit.writeEndElement();
+            reportJunit.writeCharacters("\n");
+            reportJunit.writeEndElement();
+            reportJunit.writeEndDocument();
+            reportJunit.close();
+            writerJunit.close();
+
+            for (FeaturePart featurePart : parts.values()) {
+                featurePart.testng.delete();
+                featurePart.junit.delete();
+            }
+            durationHistory.save();
+            failedScenarios.save();
+            stepStatistics.save();
+
+        } catch (XMLStreamException | IOException e) {
+            throw new CucumberException("Error writing report.", e);
         }
     }
 
+    private static void copy(File from, Writer to) throws IOException {
+        Reader reader = new InputStreamReader(new FileInputStream(from), StandardCharsets.UTF_8);
+        try {
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                to.write(buffer, 0, read);
+            }
+        } finally {
+            reader.close();
+        }
+        to.flush();
+    }
+
     @Override
     public void close() {
     }
@@ -227,19 +356,34 @@ public class CucumberReporter implements Formatter, Reporter {
 
     @Override
     public void match(Match match) {
+        stepPattern = match instanceof StepDefinitionMatch ? ((StepDefinitionMatch) match).getPattern() : null;
     }
 
     @Override
     public void result(Result result) {
         testMethod.results.add(result);
+        if (stepPattern != null && result.getDuration() != null) {
+            stepStatistics.record(stepPattern, result.getDuration());
+        }
+        stepPattern = null;
     }
 
+    /**
+     * Store the embedding on disk and reference it from the running scenario.
+     */
     @Override
     public void embedding(String mimeType, byte[] data) {
+        if (testMethod != null) {
+            File file = embeddingStore.store(mimeType, data);
+            testMethod.embeddings.add(new String[] { mimeType, file.getPath() });
+        }
     }
 
     @Override
     public void write(String text) {
+        if (testMethod != null) {
+            testMethod.output.add(text);
+        }
     }
 
     @Override
@@ -247,42 +391,37 @@ public class CucumberReporter implements Formatter, Reporter {
         testMethod.hooks.add(result);
     }
 
-    private int getElementsCountByAttribute(Node node, String attributeName, String attributeValue) {
-        int count = 0;
+    /**
+     * TESTNG test-method and JUNIT testcase elements of a feature, kept open
+     * while its scenarios are reported.
+     */
+    private static final class FeaturePart {
 
-        for (int i = 0; i < node.getChildNodes().getLength(); i++) {
-            count += getElementsCountByAttribute(node.getChildNodes().item(i), attributeName, attributeValue);
-        }
+        private final File testng, junit;
+        private boolean created;
+        private Writer writer, writerJunit;
+        private XMLStreamWriter xml, xmlJunit;
 
-        NamedNodeMap attributes = node.getAttributes();
-        if (attributes != null) {
-            Node namedItem = attributes.getNamedItem(attributeName);
-            if (namedItem != null && namedItem.getNodeValue().matches(attributeValue)) {
-                count++;
-            }
+        private FeaturePart(File testng, File junit) {
+            this.testng = testng;
+            this.junit = junit;
         }
-        return count;
-    }
 
-    private double getTotalDuration(NodeList testCaseNodes) {
-        double totalDuration = 0;
-        for (int i = 0; i < testCaseNodes.getLength(); i++) {
-            try {
-                String duration = "0";
-                Node durationms = testCaseNodes.item(i).getAttributes().getNamedItem("duration-ms");
-                if (durationms != null) {
-                    duration = durationms.getNodeValue();
-                }
-                totalDuration += Double.parseDouble(duration);
-            } catch (NumberFormatException e) {
-                throw new CucumberException(e);
-            }
+        private void open() throws IOException, XMLStreamException {
+            // a part left by a previous run is overwritten, not appended to
+            writer = new OutputStreamWriter(new FileOutputStream(testng, created), StandardCharsets.UTF_8);
+            writerJunit = new OutputStreamWriter(new FileOutputStream(junit, created), StandardCharsets.UTF_8);
+            created = true;
+            xml = XML_OUTPUT_FACTORY.createXMLStreamWriter(writer);
+            xmlJunit = XML_OUTPUT_FACTORY.createXMLStreamWriter(writerJunit);
         }
-        return totalDuration;
-    }
 
-    private double getTotalDurationMs(NodeList testCaseNodes) {
-        return getTotalDuration(testCaseNodes) / 1000;
+        private void close() throws IOException, XMLStreamException {
+            xml.close();
+            xmlJunit.close();
+            writer.close();
+            writerJunit.close();
+        }
     }
 
     private static final class TestMethod {
@@ -293,44 +432,39 @@ public class CucumberReporter implements Formatter, Reporter {
         private List<Step> steps;
         private List<Step> stepsbg;
         private final List<Result> results = new ArrayList<Result>();
+        private final List<String[]> embeddings = new ArrayList<String[]>();
+        private final List<String> output = new ArrayList<String>();
         private List<Result> hooks;
         private Integer iteration = 1;
+        private String name;
+        private String startedAt;
 
         private TestMethod(Scenario scenario) {
             this.scenario = scenario;
         }
 
-        private void start(Element element, Integer iteration, Element JunitElement) {
+        private void start(Integer iteration) {
             this.iteration = iteration;
-            if ((examplesData == null) || (this.iteration >= examplesData.getRows().size())) {
-                element.setAttribute("name", scenario.getName());
-                JunitElement.setAttribute("name", scenario.getName());
-                ThreadProperty.set("dataSet", "");
-            } else {
-                String data = examplesData.getRows().get(iteration).getCells().toString();
-                data = data.replaceAll("\"", "¨");
-                element.setAttribute("name", scenario.getName() + " " + data);
-                JunitElement.setAttribute("name", scenario.getName() + " " + data);
-                ThreadProperty.set("dataSet", data);
-            }
-            element.setAttribute("started-at", DATE_FORMAT.format(new Date()));
+            String data = DataSetListener.dataSet(examplesData, iteration);
+            name = "".equals(data) ? scenario.getName() : scenario.getName() + " " + data;
+            startedAt = DATE_FORMAT.get().format(new Date());
         }
 
         /**
-         * Finish.
+         * Finish, writing the test-method and testcase elements.
          * 
-         * @param doc
-         * @param element
-         * @param position
+         * @param xml TESTNG writer
+         * @param xmlJunit JUNIT writer
+         * @param className
          * @param tags
+         * @return the TESTNG status
+         * @throws XMLStreamException
          */
-        public void finish(Document doc, Element element, Integer position, List<Tag> tags, Document docJunit,
-                Element Junit) {
+        public String finish(XMLStreamWriter xml, XMLStreamWriter xmlJunit, String className, List<Tag> tags)
+                throws XMLStreamException {
 
-            Junit.setAttribute("time", String.valueOf(calculateTotalDurationString() / 1000));
-
-            element.setAttribute("duration-ms", String.valueOf(calculateTotalDurationString()));
-            element.setAttribute("finished-at", DATE_FORMAT.format(new Date()));
+            double duration = calculateTotalDurationString();
+            String finishedAt = DATE_FORMAT.get().format(new Date());
 
             StringBuilder stringBuilder = new StringBuilder();
 
@@ -346,69 +480,52 @@ public class CucumberReporter implements Formatter, Reporter {
             Result skipped = null;
             Result failed = null;
 
-            Boolean ignored = false;
-
-            Boolean ignoreReason = false;
+            IgnoreTags ignoreTags = IgnoreTags.of(tags);
+            boolean ignored = ignoreTags.isIgnored();
+            boolean ignoreReason = ignoreTags.getReason() != null;
             String exceptionmsg = "Failed";
-
-            for (Tag tag : tags) {
-                if ("@ignore".equals(tag.getName())){
-                    ignored=true;
-
-                    for (Tag tagNs : tags) {
-                        if (!(tagNs.getName().equals("@ignore"))) {
-
-                            //@tillFixed
-                            if ((tagNs.getName()).matches("@tillfixed\\(\\w+-\\d+\\)")){
-                                String issueNumb = tagNs.getName().substring(tagNs.getName().lastIndexOf("(") +1);
-                                exceptionmsg = "This scenario was skipped because of https://stratio.atlassian.net/browse/" + (issueNumb.subSequence(0, issueNumb.length() - 1)).toString().toUpperCase();
-                                ignoreReason = true;
-                                break;
-                            }
-
-                            //@unimplemented
-                            if (tagNs.getName().matches("@unimplemented")) {
-                                exceptionmsg = "This scenario was skipped because of it is not yet implemented";
-                                ignoreReason = true;
-                                break;
-                            }
-
-                            //@manual
-                            if (tagNs.getName().matches("@manual")) {
-                                ignoreReason = true;
-                                exceptionmsg = "This scenario was skipped because it is marked as manual.";
-                                break;
-                            }
-
-                            //@toocomplex
-                            if (tagNs.getName().matches("@toocomplex")) {
-                                exceptionmsg = "This scenario was skipped because of being too complex to test";
-                                ignoreReason = true;
-                                break;
-                            }
-                        }
-                    }
+            if (ignoreReason) {
+                switch (ignoreTags.getReason()) {
+                    case TILL_FIXED:
+                        exceptionmsg = "This scenario was skipped because of https://stratio.atlassian.net/browse/"
+                                + ignoreTags.getIssue().toUpperCase();
+                        break;
+                    case UNIMPLEMENTED:
+                        exceptionmsg = "This scenario was skipped because of it is not yet implemented";
+                        break;
+                    case MANUAL:
+                        exceptionmsg = "This scenario was skipped because it is marked as manual.";
+                        break;
+                    default:
+                        exceptionmsg = "This scenario was skipped because of being too complex to test";
                 }
             }
 
+            String status;
+            // TESTNG exception, not written if its class is null
+            String exceptionClass = null;
+            String exceptionMessage = null;
+            String exceptionStacktrace = null;
+            // JUNIT child elements, not written if null
+            String junitElement = null;
+            String junitMessage = null;
+            String junitText = null;
+            String systemOut = null;
+
             if (ignored && ignoreReason) {
-                element.setAttribute(STATUS, "SKIP");
-                Element exception = createException(doc, "skipped",
-                        exceptionmsg, " ");
-                element.appendChild(exception);
-                Element skippedElementJunit = docJunit.createElement("skipped");
-                Junit.appendChild(skippedElementJunit);
-                Element systemOut = systemOutPrintJunit(docJunit, exceptionmsg);
-                Junit.appendChild(systemOut);
+                status = "SKIP";
+                exceptionClass = "skipped";
+                exceptionMessage = exceptionmsg;
+                exceptionStacktrace = " ";
+                junitElement = "skipped";
+                systemOut = exceptionmsg;
             } else if (ignored && !ignoreReason) {
-                element.setAttribute(STATUS, "FAIL");
-                Element exception = createException(doc, "failed",
-                        "Nonexistent ignore reason", " ");
-                element.appendChild(exception);
-                Element skippedElementJunit = docJunit.createElement("failed");
-                Junit.appendChild(skippedElementJunit);
-                Element systemOut = systemOutPrintJunit(docJunit, "Nonexistent ignore reason");
-                Junit.appendChild(systemOut);
+                status = "FAIL";
+                exceptionClass = "failed";
+                exceptionMessage = "Nonexistent ignore reason";
+                exceptionStacktrace = " ";
+                junitElement = "failed";
+                systemOut = "Nonexistent ignore reason";
             } else {
                 for (Result result : results) {
                     if ("failed".equals(result.getStatus())) {
@@ -423,41 +540,98 @@ public class CucumberReporter implements Formatter, Reporter {
                     }
                 }
                 if (failed != null) {
-                    element.setAttribute(STATUS, "FAIL");
+                    status = "FAIL";
                     StringWriter stringWriter = new StringWriter();
                     failed.getError().printStackTrace(new PrintWriter(stringWriter));
-                    Element exception = createException(doc, failed.getError().getClass().getName(),
-                            stringBuilder.toString(), stringWriter.toString());
-                    element.appendChild(exception);
-                    Element exceptionJunit = createExceptionJunit(docJunit, failed.getError().getClass().getName(),
-                            stringBuilder.toString(), stringWriter.toString());
-                    Junit.appendChild(exceptionJunit);
+                    exceptionClass = failed.getError().getClass().getName();
+                    exceptionMessage = stringBuilder.toString();
+                    exceptionStacktrace = stringWriter.toString();
+                    junitElement = "failure";
+                    junitMessage = stringBuilder.toString();
+                    junitText = stringWriter.toString();
                 } else if (skipped != null) {
                     if (treatSkippedAsFailure) {
-                        element.setAttribute(STATUS, "FAIL");
-                        Element exception = createException(doc, "The scenario has pending or undefined step(s)",
-                                stringBuilder.toString(), "The scenario has pending or undefined step(s)");
-                        element.appendChild(exception);
-                        Element exceptionJunit = createExceptionJunit(docJunit,
-                                "The scenario has pending or undefined step(s)", stringBuilder.toString(),
-                                "The scenario has pending or undefined step(s)");
-                        Junit.appendChild(exceptionJunit);
+                        status = "FAIL";
+                        exceptionClass = "The scenario has pending or undefined step(s)";
+                        exceptionMessage = stringBuilder.toString();
+                        exceptionStacktrace = "The scenario has pending or undefined step(s)";
+                        junitElement = "failure";
+                        junitMessage = stringBuilder.toString();
+                        junitText = "The scenario has pending or undefined step(s)";
                     } else {
-                        element.setAttribute(STATUS, "SKIP");
-                        Element skippedElementJunit = docJunit.createElement("skipped");
-                        Junit.appendChild(skippedElementJunit);
-                        Element systemOut = systemOutPrintJunit(docJunit, stringBuilder.toString());
-                        Junit.appendChild(systemOut);
+                        status = "SKIP";
+                        junitElement = "skipped";
+                        systemOut = stringBuilder.toString();
                     }
 
                 } else {
-                    element.setAttribute(STATUS, "PASS");
-                    Element exception = createException(doc, "NonRealException", stringBuilder.toString(), " ");
-                    element.appendChild(exception);
-                    Element systemOut = systemOutPrintJunit(docJunit, stringBuilder.toString());
-                    Junit.appendChild(systemOut);
+                    status = "PASS";
+                    exceptionClass = "NonRealException";
+                    exceptionMessage = stringBuilder.toString();
+                    exceptionStacktrace = " ";
+                    systemOut = stringBuilder.toString();
+                }
+            }
+
+            xml.writeStartElement("test-method");
+            xml.writeAttribute("name", name);
+            xml.writeAttribute("started-at", startedAt);
+            xml.writeAttribute("duration-ms", String.valueOf(duration));
+            xml.writeAttribute("finished-at", finishedAt);
+            xml.writeAttribute(STATUS, status);
+            if (exceptionClass != null) {
+                writeException(xml, exceptionClass, exceptionMessage, exceptionStacktrace);
+            }
+            for (String[] embedding : embeddings) {
+                xml.writeEmptyElement("attachment");
+                xml.writeAttribute("mime-type", embedding[0]);
+                xml.writeAttribute("path", embedding[1]);
+            }
+            if (!output.isEmpty()) {
+                xml.writeStartElement("reporter-output");
+                for (String line : output) {
+                    xml.writeStartElement("line");
+                    writeCData(xml, line);
+                    xml.writeEndElement();
+                }
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeCharacters("\n");
+
+            xmlJunit.writeStartElement("testcase");
+            xmlJunit.writeAttribute("name", name);
+            xmlJunit.writeAttribute("time", String.valueOf(duration / 1000));
+            xmlJunit.writeAttribute("classname", className);
+            if (junitElement != null) {
+                xmlJunit.writeStartElement(junitElement);
+                if (junitMessage != null) {
+                    xmlJunit.writeAttribute("message", "\r\n" + junitMessage + "\r\n");
+                }
+                if (junitText != null) {
+                    writeCData(xmlJunit, junitText);
                 }
+                xmlJunit.writeEndElement();
             }
+            if (systemOut != null || !output.isEmpty() || !embeddings.isEmpty()) {
+                StringBuilder out = new StringBuilder("\r\n");
+                if (systemOut != null) {
+                    out.append(systemOut).append("\r\n");
+                }
+                for (String line : output) {
+                    out.append(line).append("\r\n");
+                }
+                // Attachment references understood by the Jenkins JUnit attachments plugin
+                for (String[] embedding : embeddings) {
+                    out.append("[[ATTACHMENT|").append(new File(embedding[1]).getAbsolutePath()).append("]]\r\n");
+                }
+                xmlJunit.writeStartElement("system-out");
+                writeCData(xmlJunit, out.toString());
+                xmlJunit.writeEndElement();
+            }
+            xmlJunit.writeEndElement();
+            xmlJunit.writeCharacters("\n");
+            return status;
         }
 
         private double calculateTotalDurationString() {
@@ -507,36 +681,26 @@ public class CucumberReporter implements Formatter, Reporter {
             }
         }
 
-        private Element createException(Document doc, String clazz, String message, String stacktrace) {
-            Element exceptionElement = doc.createElement("exception");
-            exceptionElement.setAttribute("class", clazz);
+        private void writeException(XMLStreamWriter xml, String clazz, String message, String stacktrace)
+                throws XMLStreamException {
+            xml.writeStartElement("exception");
+            xml.writeAttribute("class", clazz);
 
             if (message != null) {
-                Element messageElement = doc.createElement("message");
-                messageElement.appendChild(doc.createCDATASection("\r\n<pre>\r\n" + message + "\r\n</pre>\r\n"));
-                exceptionElement.appendChild(messageElement);
+                xml.writeStartElement("message");
+                writeCData(xml, "\r\n<pre>\r\n" + message + "\r\n</pre>\r\n");
+                xml.writeEndElement();
             }
 
-            Element stacktraceElement = doc.createElement("full-stacktrace");
-            stacktraceElement.appendChild(doc.createCDATASection(stacktrace));
-            exceptionElement.appendChild(stacktraceElement);
-
-            return exceptionElement;
-        }
-
-        private Element createExceptionJunit(Document doc, String clazz, String message, String stacktrace) {
-            Element exceptionElement = doc.createElement("failure");
-            if (message != null) {
-                exceptionElement.setAttribute("message", "\r\n" + message + "\r\n");
-            }
-            exceptionElement.appendChild(doc.createCDATASection(stacktrace));
-            return exceptionElement;
+            xml.writeStartElement("full-stacktrace");
+            writeCData(xml, stacktrace);
+            xml.writeEndElement();
+            xml.writeEndElement();
         }
 
-        private Element systemOutPrintJunit(Document doc, String message) {
-            Element systemOut = doc.createElement("system-out");
-            systemOut.appendChild(doc.createCDATASection("\r\n" + message + "\r\n"));
-            return systemOut;
+        private void writeCData(XMLStreamWriter xml, String text) throws XMLStreamException {
+            // A CDATA section cannot contain its own end marker, so it is split
+            xml.writeCData(text.replace("]]>", "]]]]><![CDATA[>"));
         }
     }
 }
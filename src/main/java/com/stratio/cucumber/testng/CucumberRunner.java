@@ -5,23 +5,55 @@ import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.reflections.Reflections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.stratio.cucumber.index.GlueIndex;
 
 import cucumber.api.CucumberOptions;
 import cucumber.runtime.ClassFinder;
+import cucumber.runtime.Runtime;
 import cucumber.runtime.RuntimeOptions;
 import cucumber.runtime.RuntimeOptionsFactory;
 import cucumber.runtime.io.MultiLoader;
 import cucumber.runtime.io.ResourceLoader;
 import cucumber.runtime.io.ResourceLoaderClassFinder;
+import cucumber.runtime.model.CucumberFeature;
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
 
 
 public class CucumberRunner {
 
-    private final cucumber.runtime.Runtime runtime;
+    public static final String THREADS = "CUCUMBER_THREADS";
+    public static final String GLUE = "CUCUMBER_GLUE";
+    public static final String RERUN_FAILED = "RERUN_FAILED";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CucumberRunner.class);
+
+    private static final String[] DEFAULT_GLUE = { "classpath:com/stratio/specs",
+            "classpath:com/stratio/sparta/testsAT/specs", "classpath:com/stratio/gosecsso/testsAT/specs",
+            "classpath:com/stratio/crossdata/testsAT/specs", "classpath:com/stratio/streaming/testsAT/specs",
+            "classpath:com/stratio/ingestion/testsAT/specs", "classpath:com/stratio/datavis/testsAT/specs",
+            "classpath:com/stratio/connectors/testsAT/specs", "classpath:com/stratio/admin/testsAT/specs",
+            "classpath:com/stratio/explorer/testsAT/specs", "classpath:com/stratio/manager/testsAT/specs",
+            "classpath:com/stratio/viewer/testsAT/specs", "classpath:com/stratio/decision/testsAT/specs",
+            "classpath:com/stratio/cassandra/lucene/testsAT/specs" };
+
+    private final ResourceLoader resourceLoader;
+    private final ClassFinder classFinder;
+    private final ClassLoader classLoader;
+    private final RuntimeOptions runtimeOptions;
+    private final ScenarioSharder sharder;
+    private final DurationHistory durationHistory;
+    private final FailedScenarios failedScenarios;
+    private final String reportName;
 
     /**
      * Default constructor for cucumber Runner.
@@ -38,64 +70,165 @@ public class CucumberRunner {
     @SuppressWarnings("unused")
     public CucumberRunner(Class<?> clazz, String... feature) throws IOException, ClassNotFoundException,
             InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-        ClassLoader classLoader = clazz.getClassLoader();
-        ResourceLoader resourceLoader = new MultiLoader(classLoader);
+        classLoader = clazz.getClassLoader();
+        resourceLoader = new MultiLoader(classLoader);
 
         RuntimeOptionsFactory runtimeOptionsFactory = new RuntimeOptionsFactory(clazz,
                 new Class[] { CucumberOptions.class });
-        RuntimeOptions runtimeOptions = runtimeOptionsFactory.create();
+        runtimeOptions = runtimeOptionsFactory.create();
 
         boolean aux = new File("target/executions/").mkdirs();
         CucumberReporter reporterTestNG;
 
+        sharder = ScenarioSharder.fromSystemProperties();
+        String shardSuffix = sharder == null ? "" : sharder.getReportSuffix();
+
         if ((feature.length == 0)) {
-            reporterTestNG = new CucumberReporter("target/executions/", clazz.getCanonicalName(), "");
+            reportName = clazz.getCanonicalName() + shardSuffix;
+            reporterTestNG = new CucumberReporter("target/executions/", clazz.getCanonicalName(), shardSuffix);
         } else {
             List<String> features = new ArrayList<String>();
             String fPath = "src/test/resources/features/" + feature[0] + ".feature";
             features.add(fPath);
             runtimeOptions.getFeaturePaths().addAll(features);
-            reporterTestNG = new CucumberReporter("target/executions/", clazz.getCanonicalName(), feature[0]);
+            reportName = clazz.getCanonicalName() + feature[0] + shardSuffix;
+            reporterTestNG = new CucumberReporter("target/executions/", clazz.getCanonicalName(), feature[0]
+                    + shardSuffix);
         }
 
-        List<String> uniqueGlue = new ArrayList<String>();
-        uniqueGlue.add("classpath:com/stratio/specs");
-	uniqueGlue.add("classpath:com/stratio/sparta/testsAT/specs");
-	uniqueGlue.add("classpath:com/stratio/gosecsso/testsAT/specs");
-        uniqueGlue.add("classpath:com/stratio/crossdata/testsAT/specs");
-        uniqueGlue.add("classpath:com/stratio/streaming/testsAT/specs");
-        uniqueGlue.add("classpath:com/stratio/ingestion/testsAT/specs");
-        uniqueGlue.add("classpath:com/stratio/datavis/testsAT/specs");
-        uniqueGlue.add("classpath:com/stratio/connectors/testsAT/specs");
-        uniqueGlue.add("classpath:com/stratio/admin/testsAT/specs");
-        uniqueGlue.add("classpath:com/stratio/explorer/testsAT/specs");
-        uniqueGlue.add("classpath:com/stratio/manager/testsAT/specs");
-        uniqueGlue.add("classpath:com/stratio/viewer/testsAT/specs");
-        uniqueGlue.add("classpath:com/stratio/decision/testsAT/specs");
-        uniqueGlue.add("classpath:com/stratio/cassandra/lucene/testsAT/specs");                                  
+        durationHistory = reporterTestNG.getDurationHistory();
+        failedScenarios = reporterTestNG.getFailedScenarios();
+        GlueIndex glueIndex = GlueIndex.load(classLoader);
+
         runtimeOptions.getGlue().clear();
-        runtimeOptions.getGlue().addAll(uniqueGlue);
+        runtimeOptions.getGlue().addAll(glue(glueIndex));
 
         runtimeOptions.addFormatter(reporterTestNG);
-        Set<Class<? extends ICucumberFormatter>> implementers = new Reflections("com.stratio.tests.utils")
-                .getSubTypesOf(ICucumberFormatter.class);
-
-        for (Class<? extends ICucumberFormatter> implementerClazz : implementers) {
+        runtimeOptions.addFormatter(new SlowestFormatter(new File("target/executions/" + reportName + "SLOWEST.json")));
+        String historyDir = System.getProperty(RunHistory.DIR);
+        if (historyDir != null) {
+            new File(historyDir).mkdirs();
+            runtimeOptions.addFormatter(new RunHistory(new File(historyDir, reportName + ".jsonl")));
+        }
+        for (Class<? extends ICucumberFormatter> implementerClazz : formatters(glueIndex, classLoader)) {
             Constructor<?> ctor = implementerClazz.getConstructor();
             ctor.setAccessible(true);
             runtimeOptions.addFormatter((ICucumberFormatter) ctor.newInstance());
         }
 
-        ClassFinder classFinder = new ResourceLoaderClassFinder(resourceLoader, classLoader);
-        runtime = new cucumber.runtime.Runtime(resourceLoader, classFinder, classLoader, runtimeOptions);
+        classFinder = new ResourceLoaderClassFinder(resourceLoader, classLoader);
+    }
+
+    /**
+     * Glue packages to load step definitions and hooks from: the ones listed in
+     * the CUCUMBER_GLUE system property (comma separated), or else the ones
+     * found in the compile time glue index when the project running the
+     * tests has been indexed, or else the default ones.
+     * 
+     * @param glueIndex
+     * @return List<String>
+     */
+    private List<String> glue(GlueIndex glueIndex) {
+        List<String> uniqueGlue = new ArrayList<String>();
+        String glueProperty = System.getProperty(GLUE, "");
+        if (!"".equals(glueProperty)) {
+            for (String path : glueProperty.split(",")) {
+                path = path.trim();
+                if (!path.startsWith("classpath:")) {
+                    path = "classpath:" + path.replace('.', '/');
+                }
+                uniqueGlue.add(path);
+            }
+        } else if (glueIndex.hasConsumerEntries()) {
+            uniqueGlue.addAll(glueIndex.getGlue());
+        } else {
+            LOGGER.warn("No glue index found but the one of bdt-lib, using the default glue packages. Compile with "
+                    + "annotation processing enabled or set {} to load other packages", GLUE);
+            uniqueGlue.addAll(Arrays.asList(DEFAULT_GLUE));
+        }
+        return uniqueGlue;
+    }
+
+    /**
+     * ICucumberFormatter implementations to register, taken from the compile
+     * time index when the project running the tests has been indexed.
+     * 
+     * @param glueIndex
+     * @param classLoader
+     * @return Set<Class<? extends ICucumberFormatter>>
+     * @throws ClassNotFoundException
+     */
+    private Set<Class<? extends ICucumberFormatter>> formatters(GlueIndex glueIndex, ClassLoader classLoader)
+            throws ClassNotFoundException {
+        if (!glueIndex.hasConsumerEntries()) {
+            return new Reflections("com.stratio.tests.utils").getSubTypesOf(ICucumberFormatter.class);
+        }
+        Set<Class<? extends ICucumberFormatter>> implementers = new LinkedHashSet<Class<? extends ICucumberFormatter>>();
+        for (String formatter : glueIndex.getFormatters()) {
+            implementers.add(Class.forName(formatter, true, classLoader).asSubclass(ICucumberFormatter.class));
+        }
+        return implementers;
     }
 
     /**
      * Run the testclases(Features).
      * 
+     * When the CUCUMBER_THREADS system property is greater than one, scenarios
+     * are spread among that many worker threads, longest scenarios of previous
+     * runs first. When SHARD_COUNT (and
+     * SHARD_INDEX) are set, only the scenarios belonging to this shard are run.
+     * When RERUN_FAILED is true, only the scenarios failed in the previous run
+     * are run.
+     * 
+     * The progress of the run is published as a RunProgress MBean while it
+     * runs (and on http://localhost:PROGRESS_PORT/progress if set).
+     * 
      * @throws IOException
      */
     public void runCukes() throws IOException {
-        runtime.run();
+        int threads = Integer.parseInt(System.getProperty(THREADS, "1"));
+        boolean rerunFailed = Boolean.parseBoolean(System.getProperty(RERUN_FAILED, "false"));
+        // parsed once, and run as parsed whatever the mode
+        List<CucumberFeature> features = runtimeOptions.cucumberFeatures(resourceLoader);
+        List<ScenarioTask> tasks = ScenarioTask.fromFeatures(features);
+        boolean taskEngine = threads > 1 || sharder != null || rerunFailed;
+        if (rerunFailed) {
+            tasks = failedScenarios.select(tasks);
+        }
+        if (sharder != null) {
+            tasks = sharder.select(tasks);
+        }
+        if (threads > 1) {
+            tasks = durationHistory.longestFirst(tasks);
+        }
+
+        int scenarios = 0;
+        for (ScenarioTask task : tasks) {
+            scenarios += task.getScenarioCount();
+        }
+        RunProgress progress = new RunProgress(reportName);
+        progress.start(scenarios, durationHistory.estimate(tasks), threads);
+        try {
+            if (taskEngine) {
+                ParallelRuntime parallelRuntime = new ParallelRuntime(resourceLoader, classFinder, classLoader,
+                        runtimeOptions, threads);
+                parallelRuntime.addLiveListener(progress);
+                parallelRuntime.run(tasks);
+            } else {
+                runtimeOptions.addFormatter(progress);
+                runtimeOptions.addFormatter(new DataSetListener());
+                Runtime runtime = new Runtime(resourceLoader, classFinder, classLoader, runtimeOptions);
+                Formatter formatter = runtimeOptions.formatter(classLoader);
+                Reporter reporter = runtimeOptions.reporter(classLoader);
+                for (CucumberFeature feature : features) {
+                    feature.run(formatter, reporter, runtime);
+                }
+                formatter.done();
+                formatter.close();
+                runtime.printSummary();
+            }
+        } finally {
+            progress.stop();
+        }
     }
 }
@@ -0,0 +1,103 @@
+package com.stratio.cucumber.testng;
+
+import java.util.List;
+
+import com.stratio.tests.utils.ThreadProperty;
+
+import gherkin.formatter.Formatter;
+import gherkin.formatter.model.Background;
+import gherkin.formatter.model.Examples;
+import gherkin.formatter.model.Feature;
+import gherkin.formatter.model.Scenario;
+import gherkin.formatter.model.ScenarioOutline;
+import gherkin.formatter.model.Step;
+
+/**
+ * Sets the "dataSet" ThreadProperty, the example row a scenario outline is
+ * run with (empty for plain scenarios), when a scenario starts and before its
+ * steps run, so evidences are named after it.
+ *
+ * It has to get the events in the thread running the scenario: as a
+ * formatter when running sequentially, as a live listener of each task when
+ * running in parallel (see ParallelRuntime).
+ */
+public class DataSetListener implements Formatter {
+
+    public static final String DATA_SET = "dataSet";
+
+    private Examples examples;
+    private int iteration;
+
+    /**
+     * Data set of an example row, as used in the reports and evidence names.
+     *
+     * @param examples
+     * @param iteration row, the header being 0
+     * @return String, empty if there is no such row
+     */
+    public static String dataSet(Examples examples, int iteration) {
+        if (examples == null || iteration >= examples.getRows().size()) {
+            return "";
+        }
+        return examples.getRows().get(iteration).getCells().toString().replaceAll("\"", "¨");
+    }
+
+    @Override
+    public void scenarioOutline(ScenarioOutline scenarioOutline) {
+        iteration = 1;
+    }
+
+    @Override
+    public void examples(Examples examples) {
+        this.examples = examples;
+    }
+
+    @Override
+    public void startOfScenarioLifeCycle(Scenario scenario) {
+        ThreadProperty.set(DATA_SET, dataSet(examples, iteration));
+        iteration++;
+    }
+
+    @Override
+    public void endOfScenarioLifeCycle(Scenario scenario) {
+        if (examples != null && iteration >= examples.getRows().size()) {
+            examples = null;
+        }
+    }
+
+    @Override
+    public void syntaxError(String state, String event, List<String> legalEvents, String uri, Integer line) {
+    }
+
+    @Override
+    public void uri(String uri) {
+    }
+
+    @Override
+    public void feature(Feature feature) {
+    }
+
+    @Override
+    public void background(Background background) {
+    }
+
+    @Override
+    public void scenario(Scenario scenario) {
+    }
+
+    @Override
+    public void step(Step step) {
+    }
+
+    @Override
+    public void done() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void eof() {
+    }
+}
@@ -0,0 +1,159 @@
+package com.stratio.cucumber.testng;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Duration, in milliseconds, of every scenario in previous runs, keyed by
+ * feature path and scenario line (the outline line for scenario outlines,
+ * adding up all of its examples).
+ *
+ * The stored value is the average of the previous stored value and the last
+ * measured one, so a single slow run does not reorder the whole suite.
+ */
+public class DurationHistory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DurationHistory.class);
+
+    private final File file;
+    private final Map<String, Double> previous = new HashMap<String, Double>();
+    private final Map<String, Double> current = new HashMap<String, Double>();
+
+    /**
+     * Default constructor, loading the history already stored in the file, if
+     * any.
+     *
+     * @param file
+     */
+    public DurationHistory(File file) {
+        this.file = file;
+        if (file.exists()) {
+            Properties props = new Properties();
+            try {
+                InputStream in = new FileInputStream(file);
+                try {
+                    props.load(in);
+                } finally {
+                    in.close();
+                }
+                for (String id : props.stringPropertyNames()) {
+                    previous.put(id, Double.parseDouble(props.getProperty(id)));
+                }
+            } catch (IOException | NumberFormatException e) {
+                LOGGER.warn("Ignoring unreadable duration history {}: {}", file.getPath(), e.getMessage());
+                previous.clear();
+            }
+        }
+    }
+
+    /**
+     * Add the duration of a scenario in the current run.
+     *
+     * @param id feature path and line
+     * @param durationMs
+     */
+    public synchronized void record(String id, double durationMs) {
+        Double sum = current.get(id);
+        current.put(id, sum == null ? durationMs : sum + durationMs);
+    }
+
+    /**
+     * Expected duration of a scenario, or null if it has never been run.
+     *
+     * @param id feature path and line
+     * @return Double
+     */
+    public synchronized Double get(String id) {
+        return previous.get(id);
+    }
+
+    /**
+     * Sort tasks so that the ones that took longest in previous runs start
+     * first. Tasks without history are estimated with the average duration.
+     *
+     * @param tasks
+     * @return List<ScenarioTask>
+     */
+    public synchronized List<ScenarioTask> longestFirst(List<ScenarioTask> tasks) {
+        final double average = average();
+
+        List<ScenarioTask> sorted = new ArrayList<ScenarioTask>(tasks);
+        Collections.sort(sorted, new Comparator<ScenarioTask>() {
+            @Override
+            public int compare(ScenarioTask o1, ScenarioTask o2) {
+                return Double.compare(estimate(o2), estimate(o1));
+            }
+
+            private double estimate(ScenarioTask task) {
+                Double duration = previous.get(task.getId());
+                return duration == null ? average : duration;
+            }
+        });
+        return sorted;
+    }
+
+    /**
+     * Expected duration of the given tasks, estimating the ones without
+     * history with the average duration.
+     *
+     * @param tasks
+     * @return double milliseconds, 0 if there is no history at all
+     */
+    public synchronized double estimate(List<ScenarioTask> tasks) {
+        double average = average();
+        double total = 0;
+        for (ScenarioTask task : tasks) {
+            Double duration = previous.get(task.getId());
+            total += duration == null ? average : duration;
+        }
+        return total;
+    }
+
+    private double average() {
+        double total = 0;
+        for (Double duration : previous.values()) {
+            total += duration;
+        }
+        return previous.isEmpty() ? 0 : total / previous.size();
+    }
+
+    /**
+     * Merge the durations of the current run into the history and write it.
+     */
+    public synchronized void save() {
+        Map<String, Double> merged = new HashMap<String, Double>(previous);
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double old = previous.get(entry.getKey());
+            merged.put(entry.getKey(), old == null ? entry.getValue() : (old + entry.getValue()) / 2);
+        }
+
+        Properties props = new Properties();
+        for (Map.Entry<String, Double> entry : merged.entrySet()) {
+            props.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+        }
+        try {
+            OutputStream out = new FileOutputStream(file);
+            try {
+                props.store(out, "Scenario durations in ms");
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Unable to write duration history {}: {}", file.getPath(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.stratio.cucumber.testng;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+import cucumber.runtime.CucumberException;
+
+/**
+ * Content addressed store for embeddings: every embedding is written to disk
+ * as soon as it is received, in a file named after the SHA-256 of its data, so
+ * the same screenshot or page source is stored only once however many times it
+ * is embedded.
+ */
+public class EmbeddingStore {
+
+    private static final Map<String, String> EXTENSIONS = new HashMap<String, String>();
+
+    static {
+        EXTENSIONS.put("image/png", "png");
+        EXTENSIONS.put("image/jpeg", "jpg");
+        EXTENSIONS.put("image/gif", "gif");
+        EXTENSIONS.put("text/html", "html");
+        EXTENSIONS.put("text/plain", "txt");
+        EXTENSIONS.put("text/xml", "xml");
+        EXTENSIONS.put("application/json", "json");
+        EXTENSIONS.put("application/xml", "xml");
+    }
+
+    private final File dir;
+
+    /**
+     * Default constructor.
+     *
+     * @param dir directory where embeddings are stored
+     */
+    public EmbeddingStore(File dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Store an embedding, unless the same data is already stored.
+     *
+     * @param mimeType
+     * @param data
+     * @return File where the data is stored
+     */
+    public File store(String mimeType, byte[] data) {
+        String extension = EXTENSIONS.get(mimeType);
+        File file = new File(dir, hash(data) + "." + (extension == null ? "bin" : extension));
+        if (file.exists()) {
+            // Touched, so that rotation keeps it along with the reports of
+            // this run referencing it
+            file.setLastModified(System.currentTimeMillis());
+            return file;
+        }
+        try {
+            Files.createDirectories(dir.toPath());
+            // Written aside and moved, so concurrent writers never see a
+            // partial file
+            File tmp = File.createTempFile("embedding", ".tmp", dir);
+            Files.write(tmp.toPath(), data);
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new CucumberException("Error storing embedding " + file.getPath(), e);
+        }
+        return file;
+    }
+
+    private static String hash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new CucumberException(e);
+        }
+    }
+}
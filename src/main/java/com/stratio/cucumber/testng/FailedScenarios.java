@@ -0,0 +1,92 @@
+package com.stratio.cucumber.testng;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scenarios failed in a run, one feature path and line per row (the outline
+ * line for scenario outlines), so that a later run can retry only them.
+ */
+public class FailedScenarios {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FailedScenarios.class);
+
+    private final File file;
+    private final Set<String> previous;
+    private final Set<String> current = new LinkedHashSet<String>();
+
+    /**
+     * Default constructor, loading the failures of the previous run, if any.
+     *
+     * @param file
+     */
+    public FailedScenarios(File file) {
+        this.file = file;
+        Set<String> loaded = null;
+        if (file.exists()) {
+            try {
+                loaded = new LinkedHashSet<String>();
+                for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                    if (!"".equals(line.trim())) {
+                        loaded.add(line.trim());
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Ignoring unreadable failures file {}: {}", file.getPath(), e.getMessage());
+                loaded = null;
+            }
+        }
+        this.previous = loaded;
+    }
+
+    /**
+     * Keep only the tasks failed in the previous run. If there is no previous
+     * run, every task is kept.
+     *
+     * @param tasks
+     * @return List<ScenarioTask>
+     */
+    public List<ScenarioTask> select(List<ScenarioTask> tasks) {
+        if (previous == null) {
+            LOGGER.warn("No previous failures found at {}, running every scenario", file.getPath());
+            return tasks;
+        }
+        List<ScenarioTask> selected = new ArrayList<ScenarioTask>();
+        for (ScenarioTask task : tasks) {
+            if (previous.contains(task.getId())) {
+                selected.add(task);
+            }
+        }
+        LOGGER.info("Rerunning {} failed scenarios", selected.size());
+        return selected;
+    }
+
+    /**
+     * Add a failed scenario of the current run.
+     *
+     * @param id feature path and line
+     */
+    public synchronized void record(String id) {
+        current.add(id);
+    }
+
+    /**
+     * Write the failures of the current run.
+     */
+    public synchronized void save() {
+        try {
+            Files.write(file.toPath(), current, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to write failures file {}: {}", file.getPath(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.stratio.cucumber.testng;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import gherkin.formatter.model.Tag;
+
+/**
+ * Whether a scenario is tagged @ignore, and the reasons given for it with the
+ * @tillfixed(ISSUE-1), @unimplemented, @manual and @toocomplex tags. An
+ * ignored scenario without any reason is a wrong use of @ignore.
+ */
+public final class IgnoreTags {
+
+    /**
+     * Reasons to ignore a scenario, in the order they are reported.
+     */
+    public enum Reason {
+        TILL_FIXED, UNIMPLEMENTED, MANUAL, TOO_COMPLEX
+    }
+
+    private static final Pattern TILL_FIXED = Pattern.compile("@tillfixed\\((\\w+-\\d+)\\)");
+    private static final IgnoreTags NOT_IGNORED = new IgnoreTags(false, EnumSet.noneOf(Reason.class), null);
+
+    private final boolean ignored;
+    private final Set<Reason> reasons;
+    private final String issue;
+
+    private IgnoreTags(boolean ignored, EnumSet<Reason> reasons, String issue) {
+        this.ignored = ignored;
+        this.reasons = Collections.unmodifiableSet(reasons);
+        this.issue = issue;
+    }
+
+    /**
+     * Classify the tags of a scenario.
+     *
+     * @param tags
+     * @return IgnoreTags
+     */
+    public static IgnoreTags of(Collection<Tag> tags) {
+        boolean ignored = false;
+        EnumSet<Reason> reasons = EnumSet.noneOf(Reason.class);
+        String issue = null;
+        for (Tag tag : tags) {
+            String name = tag.getName();
+            switch (name) {
+                case "@ignore":
+                    ignored = true;
+                    break;
+                case "@unimplemented":
+                    reasons.add(Reason.UNIMPLEMENTED);
+                    break;
+                case "@manual":
+                    reasons.add(Reason.MANUAL);
+                    break;
+                case "@toocomplex":
+                    reasons.add(Reason.TOO_COMPLEX);
+                    break;
+                default:
+                    if (name.startsWith("@tillfixed")) {
+                        Matcher m = TILL_FIXED.matcher(name);
+                        if (m.matches() && issue == null) {
+                            reasons.add(Reason.TILL_FIXED);
+                            issue = m.group(1);
+                        }
+                    }
+            }
+        }
+        return ignored ? new IgnoreTags(true, reasons, issue) : NOT_IGNORED;
+    }
+
+    public boolean isIgnored() {
+        return ignored;
+    }
+
+    /**
+     * @return Set<Reason> every reason given, empty if there is none
+     */
+    public Set<Reason> getReasons() {
+        return reasons;
+    }
+
+    /**
+     * @return Reason the first reason given, or null if there is none
+     */
+    public Reason getReason() {
+        return reasons.isEmpty() ? null : reasons.iterator().next();
+    }
+
+    /**
+     * @return String issue of the @tillfixed tag, as in ISSUE-1, or null
+     */
+    public String getIssue() {
+        return issue;
+    }
+}
@@ -0,0 +1,93 @@
+package com.stratio.cucumber.testng;
+
+/**
+ * Fixed memory histogram of durations.
+ *
+ * Durations are kept in microseconds, in buckets of 16 sub-buckets per power
+ * of two, so percentiles are accurate to about 6% whatever the number of
+ * values recorded. Count, sum, minimum and maximum are exact.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sumMicros;
+    private long minMicros = Long.MAX_VALUE;
+    private long maxMicros;
+
+    /**
+     * Add a duration.
+     *
+     * @param nanos
+     */
+    void record(long nanos) {
+        long micros = Math.max(nanos / 1000, 0);
+        counts[index(micros)]++;
+        count++;
+        sumMicros += micros;
+        minMicros = Math.min(minMicros, micros);
+        maxMicros = Math.max(maxMicros, micros);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    double getMinMs() {
+        return count == 0 ? 0 : minMicros / 1000.0;
+    }
+
+    double getMaxMs() {
+        return maxMicros / 1000.0;
+    }
+
+    double getMeanMs() {
+        return count == 0 ? 0 : sumMicros / 1000.0 / count;
+    }
+
+    /**
+     * Value below which the given fraction of the durations fall.
+     *
+     * @param fraction between 0 and 1
+     * @return double milliseconds
+     */
+    double getPercentileMs(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(fraction * count), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long value = Math.min(Math.max(middle(i), minMicros), maxMicros);
+                return value / 1000.0;
+            }
+        }
+        return getMaxMs();
+    }
+
+    private static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (micros >> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    private static long middle(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lower + ((1L << shift) >> 1);
+    }
+}
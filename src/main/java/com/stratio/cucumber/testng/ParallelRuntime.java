@@ -0,0 +1,231 @@
+package com.stratio.cucumber.testng;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.stratio.tests.utils.ThreadProperty;
+
+import cucumber.runtime.ClassFinder;
+import cucumber.runtime.CucumberException;
+import cucumber.runtime.Runtime;
+import cucumber.runtime.RuntimeOptions;
+import cucumber.runtime.io.ResourceLoader;
+import cucumber.runtime.model.CucumberFeature;
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+
+/**
+ * Runs scenarios in a pool of worker threads.
+ *
+ * Every worker owns its own cucumber runtime, and therefore its own glue
+ * instances (CommonG included), and gets a copy of the ThreadProperty values
+ * of the thread that started the run, along with the data set of the scenario
+ * it runs. Formatter and reporter events of each
+ * scenario are recorded in a buffer owned by the worker, and handed to the
+ * thread that started the run, which is the only one replaying them on the
+ * shared formatters, so they need no locking. The ThreadProperty values of the
+ * worker when the scenario ends are recorded too, and shared by the replaying
+ * thread while the scenario is replayed, so that attributes saved by the
+ * scenario resolve in its reports as they do in a sequential run.
+ *
+ * Scenarios are replayed as soon as they complete, so memory does not grow
+ * with the suite. Within a feature they are replayed by line, holding up to
+ * CUCUMBER_REPORT_WINDOW completed scenarios (16 by default) waiting for the
+ * ones declared before them (see ReportWindow). CucumberReporter writes each
+ * feature apart and assembles them by path, so its reports do not depend on
+ * the order features are replayed in, but other formatters get the uri and
+ * feature events of a feature again whenever its scenarios are interleaved
+ * with the ones of other features.
+ */
+public class ParallelRuntime {
+
+    public static final String REPORT_WINDOW = "CUCUMBER_REPORT_WINDOW";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getCanonicalName());
+
+    private final ResourceLoader resourceLoader;
+    private final ClassFinder classFinder;
+    private final ClassLoader classLoader;
+    private final RuntimeOptions runtimeOptions;
+    private final int threads;
+
+    private final ThreadLocal<Runtime> workerRuntime = new ThreadLocal<Runtime>();
+    private final Queue<Runtime> workerRuntimes = new ConcurrentLinkedQueue<Runtime>();
+    private final List<Object> liveListeners = new ArrayList<Object>();
+
+    /**
+     * Default constructor.
+     *
+     * @param resourceLoader
+     * @param classFinder
+     * @param classLoader
+     * @param runtimeOptions
+     * @param threads
+     */
+    public ParallelRuntime(ResourceLoader resourceLoader, ClassFinder classFinder, ClassLoader classLoader,
+            RuntimeOptions runtimeOptions, int threads) {
+        this.resourceLoader = resourceLoader;
+        this.classFinder = classFinder;
+        this.classLoader = classLoader;
+        this.runtimeOptions = runtimeOptions;
+        this.threads = threads;
+    }
+
+    /**
+     * Add a listener getting the events of every scenario as they happen, from
+     * the worker threads, instead of when they are reported: formatter events
+     * if it is a Formatter, reporter events if it is a Reporter.
+     *
+     * @param listener
+     */
+    public void addLiveListener(Object listener) {
+        liveListeners.add(listener);
+    }
+
+    /**
+     * Run the given tasks, in the given order, close the shared formatters
+     * once all of them have been reported and print the summary of the run.
+     *
+     * @param tasks
+     */
+    public void run(List<ScenarioTask> tasks) {
+        Formatter formatter = runtimeOptions.formatter(classLoader);
+        Reporter reporter = runtimeOptions.reporter(classLoader);
+        RunSummary summary = new RunSummary();
+
+        logger.info("Running {} scenarios with {} threads", tasks.size(), threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new WorkerThreadFactory(
+                ThreadProperty.getAll()));
+        CompletionService<Recording> completion = new ExecutorCompletionService<Recording>(executor);
+        Map<Future<Recording>, ScenarioTask> running = new HashMap<Future<Recording>, ScenarioTask>();
+        for (final ScenarioTask task : tasks) {
+            running.put(completion.submit(new Callable<Recording>() {
+                @Override
+                public Recording call() {
+                    return runTask(task);
+                }
+            }), task);
+        }
+        executor.shutdown();
+
+        ReportWindow<Recording> window = new ReportWindow<Recording>(tasks, Integer.parseInt(System.getProperty(
+                REPORT_WINDOW, "16")));
+        CucumberFeature currentFeature = null;
+        Properties properties = ThreadProperty.getAll();
+        try {
+            while (!running.isEmpty()) {
+                Future<Recording> done = completion.take();
+                ScenarioTask completed = running.remove(done);
+                for (Map.Entry<ScenarioTask, Recording> entry : window.add(completed, done.get())) {
+                    ScenarioTask task = entry.getKey();
+                    if (task.getFeature() != currentFeature) {
+                        if (currentFeature != null) {
+                            formatter.eof();
+                        }
+                        formatter.uri(task.getPath());
+                        formatter.feature(task.getFeature().getGherkinFeature());
+                        currentFeature = task.getFeature();
+                    }
+                    ThreadProperty.replaceAll(entry.getValue().properties);
+                    try {
+                        entry.getValue().recorder.replay(formatter, reporter);
+                        entry.getValue().recorder.replay(summary, summary);
+                    } finally {
+                        ThreadProperty.replaceAll(properties);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new CucumberException(e);
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            throw new CucumberException(e.getCause());
+        }
+
+        if (currentFeature != null) {
+            formatter.eof();
+        }
+        formatter.done();
+        formatter.close();
+
+        List<Throwable> errors = new ArrayList<Throwable>();
+        Set<String> snippets = new LinkedHashSet<String>();
+        for (Runtime runtime : workerRuntimes) {
+            errors.addAll(runtime.getErrors());
+            snippets.addAll(runtime.getSnippets());
+        }
+        summary.print(System.out, errors, snippets);
+    }
+
+    private Recording runTask(ScenarioTask task) {
+        List<Object> listeners = new ArrayList<Object>(liveListeners);
+        // sets the data set of each example before its steps run, in this thread
+        listeners.add(new DataSetListener());
+        ScenarioEventRecorder recorder = new ScenarioEventRecorder(listeners.toArray());
+        task.getStatement().run(recorder.formatter(), recorder.reporter(), getWorkerRuntime());
+        return new Recording(recorder, ThreadProperty.getAll());
+    }
+
+    private Runtime getWorkerRuntime() {
+        Runtime runtime = workerRuntime.get();
+        if (runtime == null) {
+            runtime = new Runtime(resourceLoader, classFinder, classLoader, runtimeOptions);
+            workerRuntime.set(runtime);
+            workerRuntimes.add(runtime);
+        }
+        return runtime;
+    }
+
+    private static final class Recording {
+
+        private final ScenarioEventRecorder recorder;
+        private final Properties properties;
+
+        private Recording(ScenarioEventRecorder recorder, Properties properties) {
+            this.recorder = recorder;
+            this.properties = properties;
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger(0);
+        private final Properties properties;
+
+        private WorkerThreadFactory(Properties properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    ThreadProperty.setAll(properties);
+                    runnable.run();
+                }
+            }, "cucumber-worker-" + count.incrementAndGet());
+        }
+    }
+}
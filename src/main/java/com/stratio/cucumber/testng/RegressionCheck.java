@@ -0,0 +1,161 @@
+package com.stratio.cucumber.testng;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.stratio.cucumber.testng.RunHistory.Stats;
+
+/**
+ * Compares the latest run stored in a {@link RunHistory} file against the
+ * previous RUN_HISTORY_BASELINE runs (10 by default), step definition pattern
+ * by pattern.
+ *
+ * A pattern is flagged when its mean duration grew more than
+ * RUN_HISTORY_SLOWDOWN (0.1, 10%, by default) and Welch's t statistic of the
+ * latest durations against the baseline ones reaches RUN_HISTORY_T (3 by
+ * default), so that slowdowns within the usual noise are not reported.
+ */
+public final class RegressionCheck {
+
+    public static final String BASELINE_RUNS = "RUN_HISTORY_BASELINE";
+    public static final String MIN_T = "RUN_HISTORY_T";
+    public static final String MIN_SLOWDOWN = "RUN_HISTORY_SLOWDOWN";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegressionCheck.class);
+
+    private RegressionCheck() {
+    }
+
+    /**
+     * Check every history file in the given directory (RUN_HISTORY_DIR by
+     * default), or the given file, exiting with status 1 if any regression is
+     * found.
+     *
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        File path = new File(args.length > 0 ? args[0] : System.getProperty(RunHistory.DIR, "."));
+        File[] files = path.isDirectory() ? path.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File d, String name) {
+                return name.endsWith(".jsonl");
+            }
+        }) : new File[] { path };
+        if (files == null) {
+            files = new File[0];
+        }
+        Arrays.sort(files);
+
+        int baselineRuns = Integer.parseInt(System.getProperty(BASELINE_RUNS, "10"));
+        double minT = Double.parseDouble(System.getProperty(MIN_T, "3"));
+        double minSlowdown = Double.parseDouble(System.getProperty(MIN_SLOWDOWN, "0.1"));
+        int found = 0;
+        for (File file : files) {
+            for (Regression regression : check(RunHistory.load(file), baselineRuns, minT, minSlowdown)) {
+                LOGGER.error("{}: {}", file.getName(), regression);
+                found++;
+            }
+        }
+        if (found > 0) {
+            System.exit(1);
+        }
+        LOGGER.info("No step regressions found in {} history files", files.length);
+    }
+
+    /**
+     * Regressions of the latest run against the previous ones.
+     *
+     * @param runs as read by {@link RunHistory#load(File)}, oldest first
+     * @param baselineRuns number of previous runs to compare against
+     * @param minT minimum t statistic to flag a pattern
+     * @param minSlowdown minimum relative growth of the mean to flag a pattern
+     * @return List<Regression>, empty if there is no previous run
+     */
+    public static List<Regression> check(List<JSONObject> runs, int baselineRuns, double minT, double minSlowdown) {
+        List<Regression> regressions = new ArrayList<Regression>();
+        if (runs.size() < 2) {
+            return regressions;
+        }
+
+        Map<String, Stats> baseline = new HashMap<String, Stats>();
+        for (JSONObject run : runs.subList(Math.max(runs.size() - 1 - baselineRuns, 0), runs.size() - 1)) {
+            JSONObject steps = run.getJSONObject("steps");
+            for (Iterator<?> it = steps.keys(); it.hasNext();) {
+                String pattern = (String) it.next();
+                Stats stats = baseline.get(pattern);
+                if (stats == null) {
+                    stats = new Stats();
+                    baseline.put(pattern, stats);
+                }
+                stats.merge(new Stats(steps.getJSONObject(pattern)));
+            }
+        }
+
+        JSONObject latest = runs.get(runs.size() - 1).getJSONObject("steps");
+        for (Iterator<?> it = latest.keys(); it.hasNext();) {
+            String pattern = (String) it.next();
+            Stats before = baseline.get(pattern);
+            Stats now = new Stats(latest.getJSONObject(pattern));
+            if (before == null || before.getCount() < 2 || now.getCount() < 2) {
+                continue;
+            }
+            double error = Math.sqrt(before.getVariance() / before.getCount() + now.getVariance() / now.getCount());
+            double t = error == 0 ? 0 : (now.getMean() - before.getMean()) / error;
+            if (t >= minT && now.getMean() >= before.getMean() * (1 + minSlowdown)) {
+                regressions.add(new Regression(pattern, before.getMean(), now.getMean(), t));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * A step definition pattern slower in the latest run.
+     */
+    public static final class Regression {
+
+        private final String pattern;
+        private final double baselineMs;
+        private final double latestMs;
+        private final double t;
+
+        private Regression(String pattern, double baselineMs, double latestMs, double t) {
+            this.pattern = pattern;
+            this.baselineMs = baselineMs;
+            this.latestMs = latestMs;
+            this.t = t;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public double getBaselineMs() {
+            return baselineMs;
+        }
+
+        public double getLatestMs() {
+            return latestMs;
+        }
+
+        public double getT() {
+            return t;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: mean %.1f ms -> %.1f ms (t=%.1f)", pattern, baselineMs, latestMs, t);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.stratio.cucumber.testng;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import com.stratio.tests.utils.ExecutionsOutput;
+
+/**
+ * Merges the TESTNG and JUNIT reports written by every shard of a run.
+ *
+ * Shard reports are named {@code <class><feature>-shard<i>of<n>TESTNG.xml}
+ * (and {@code ...JUNIT.xml}); all the shards of a report are combined into
+ * {@code <class><feature>TESTNG.xml} (and {@code ...JUNIT.xml}) in the same
+ * directory. Gzipped reports ({@code ...TESTNG.xml.gz}) are merged into
+ * gzipped reports.
+ */
+public final class ReportMerger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReportMerger.class);
+    private static final Pattern SHARD_REPORT = Pattern.compile("(.*)-shard\\d+of\\d+(TESTNG|JUNIT)\\.xml(\\.gz)?");
+    private static final String[] TESTNG_COUNTERS = { "total", "passed", "failed", "skipped" };
+    private static final String[] JUNIT_COUNTERS = { "tests", "failures", "skipped" };
+
+    private ReportMerger() {
+    }
+
+    /**
+     * Merge the shard reports found in the given directory (target/executions/
+     * by default).
+     *
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        merge(new File(args.length > 0 ? args[0] : "target/executions/"));
+    }
+
+    /**
+     * Merge every group of shard reports found in a directory.
+     *
+     * @param dir
+     * @return List<File> merged reports
+     * @throws IOException
+     */
+    public static List<File> merge(File dir) throws IOException {
+        File[] reports = dir.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File d, String name) {
+                return SHARD_REPORT.matcher(name).matches();
+            }
+        });
+        List<File> merged = new ArrayList<File>();
+        if (reports == null) {
+            return merged;
+        }
+        Arrays.sort(reports);
+
+        Map<String, List<File>> groups = new LinkedHashMap<String, List<File>>();
+        for (File report : reports) {
+            Matcher m = SHARD_REPORT.matcher(report.getName());
+            m.matches();
+            String target = m.group(1) + m.group(2) + ".xml" + (m.group(3) == null ? "" : m.group(3));
+            if (!groups.containsKey(target)) {
+                groups.put(target, new ArrayList<File>());
+            }
+            groups.get(target).add(report);
+        }
+
+        for (Map.Entry<String, List<File>> group : groups.entrySet()) {
+            File output = new File(dir, group.getKey());
+            if (group.getKey().contains("TESTNG.xml")) {
+                mergeTestNG(group.getValue(), output);
+            } else {
+                mergeJunit(group.getValue(), output);
+            }
+            LOGGER.info("Merged {} shard reports into {}", group.getValue().size(), output.getPath());
+            merged.add(output);
+        }
+        return merged;
+    }
+
+    /**
+     * Merge TESTNG reports: every test class is moved under a single suite and
+     * the counters and durations are added up.
+     *
+     * @param reports
+     * @param output
+     * @throws IOException
+     */
+    public static void mergeTestNG(List<File> reports, File output) throws IOException {
+        Document merged = newDocument();
+        Element results = merged.createElement("testng-results");
+        Element suite = merged.createElement("suite");
+        Element test = merged.createElement("test");
+        merged.appendChild(results);
+        results.appendChild(suite);
+        suite.appendChild(test);
+
+        long[] counters = new long[TESTNG_COUNTERS.length];
+        double duration = 0;
+        for (File report : reports) {
+            Document doc = parse(report);
+            Element shardResults = doc.getDocumentElement();
+            for (int i = 0; i < TESTNG_COUNTERS.length; i++) {
+                counters[i] += parseLong(shardResults.getAttribute(TESTNG_COUNTERS[i]));
+            }
+            Element shardSuite = (Element) shardResults.getElementsByTagName("suite").item(0);
+            if (shardSuite == null) {
+                continue;
+            }
+            duration += parseDouble(shardSuite.getAttribute("duration-ms"));
+            suite.setAttribute("name", shardSuite.getAttribute("name"));
+            NodeList tests = shardSuite.getElementsByTagName("test");
+            if (tests.getLength() > 0) {
+                test.setAttribute("name", ((Element) tests.item(0)).getAttribute("name"));
+                importChildren(merged, tests.item(0), test);
+            }
+        }
+
+        for (int i = 0; i < TESTNG_COUNTERS.length; i++) {
+            results.setAttribute(TESTNG_COUNTERS[i], String.valueOf(counters[i]));
+        }
+        suite.setAttribute("duration-ms", String.valueOf(duration));
+        test.setAttribute("duration-ms", String.valueOf(duration));
+        write(merged, output);
+    }
+
+    /**
+     * Merge JUNIT reports: every testcase is moved under a single testsuite
+     * and the counters and times are added up.
+     *
+     * @param reports
+     * @param output
+     * @throws IOException
+     */
+    public static void mergeJunit(List<File> reports, File output) throws IOException {
+        Document merged = newDocument();
+        Element results = merged.createElement("testsuites");
+        Element suite = merged.createElement("testsuite");
+        merged.appendChild(results);
+        results.appendChild(suite);
+
+        long[] counters = new long[JUNIT_COUNTERS.length];
+        double time = 0;
+        for (File report : reports) {
+            Document doc = parse(report);
+            NodeList suites = doc.getDocumentElement().getElementsByTagName("testsuite");
+            for (int s = 0; s < suites.getLength(); s++) {
+                Element shardSuite = (Element) suites.item(s);
+                for (int i = 0; i < JUNIT_COUNTERS.length; i++) {
+                    counters[i] += parseLong(shardSuite.getAttribute(JUNIT_COUNTERS[i]));
+                }
+                time += parseDouble(shardSuite.getAttribute("time"));
+                suite.setAttribute("name", shardSuite.getAttribute("name"));
+                suite.setAttribute("timestamp", shardSuite.getAttribute("timestamp"));
+                importChildren(merged, shardSuite, suite);
+            }
+        }
+
+        for (int i = 0; i < JUNIT_COUNTERS.length; i++) {
+            suite.setAttribute(JUNIT_COUNTERS[i], String.valueOf(counters[i]));
+        }
+        suite.setAttribute("time", String.valueOf(time));
+        write(merged, output);
+    }
+
+    private static void importChildren(Document target, Node from, Node to) {
+        NodeList children = from.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            if (children.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                to.appendChild(target.importNode(children.item(i), true));
+            }
+        }
+    }
+
+    private static long parseLong(String value) {
+        return "".equals(value) ? 0 : Long.parseLong(value);
+    }
+
+    private static double parseDouble(String value) {
+        return "".equals(value) ? 0 : Double.parseDouble(value);
+    }
+
+    private static Document newDocument() throws IOException {
+        try {
+            return DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        } catch (ParserConfigurationException e) {
+            throw new IOException("Error initializing DocumentBuilder.", e);
+        }
+    }
+
+    private static Document parse(File report) throws IOException {
+        try {
+            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            InputStream in = ExecutionsOutput.read(report);
+            try {
+                return builder.parse(in);
+            } finally {
+                in.close();
+            }
+        } catch (ParserConfigurationException e) {
+            throw new IOException("Error initializing DocumentBuilder.", e);
+        } catch (SAXException e) {
+            throw new IOException("Error parsing report " + report.getPath(), e);
+        }
+    }
+
+    private static void write(Document doc, File output) throws IOException {
+        try {
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            OutputStream out = ExecutionsOutput.open(output);
+            try {
+                transformer.transform(new DOMSource(doc), new StreamResult(out));
+            } finally {
+                out.close();
+            }
+        } catch (TransformerException e) {
+            throw new IOException("Error writing report " + output.getPath(), e);
+        }
+    }
+}
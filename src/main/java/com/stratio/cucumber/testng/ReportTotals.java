@@ -0,0 +1,53 @@
+package com.stratio.cucumber.testng;
+
+/**
+ * Running counters and duration of the scenarios reported, updated as every
+ * scenario ends so the report totals are available without walking the
+ * reported elements.
+ */
+final class ReportTotals {
+
+    private int total;
+    private int passed;
+    private int failed;
+    private int skipped;
+    private double durationMs;
+
+    /**
+     * Add a finished scenario.
+     *
+     * @param status PASS, FAIL or SKIP
+     * @param duration in milliseconds
+     */
+    void add(String status, double duration) {
+        total++;
+        durationMs += duration;
+        if ("FAIL".equals(status)) {
+            failed++;
+        } else if ("SKIP".equals(status)) {
+            skipped++;
+        } else {
+            passed++;
+        }
+    }
+
+    int getTotal() {
+        return total;
+    }
+
+    int getPassed() {
+        return passed;
+    }
+
+    int getFailed() {
+        return failed;
+    }
+
+    int getSkipped() {
+        return skipped;
+    }
+
+    double getDurationMs() {
+        return durationMs;
+    }
+}
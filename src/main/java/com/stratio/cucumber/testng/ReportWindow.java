@@ -0,0 +1,109 @@
+package com.stratio.cucumber.testng;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import cucumber.runtime.model.CucumberFeature;
+
+/**
+ * Puts the scenarios of each feature back in line order as they complete,
+ * holding at most a given number of them.
+ *
+ * A completed scenario is released as soon as every scenario declared before
+ * it in its feature has been released. Otherwise it waits, unless the window
+ * is full, in which case the first scenario waiting in the feature with the
+ * most of them is released anyway, and the ones declared before it are
+ * released as they complete.
+ *
+ * @param <T> result of a scenario
+ */
+final class ReportWindow<T> {
+
+    private final Map<ScenarioTask, Integer> positions = new HashMap<ScenarioTask, Integer>();
+    private final Map<CucumberFeature, FeatureWindow> features = new HashMap<CucumberFeature, FeatureWindow>();
+    private final int size;
+    private int waiting;
+
+    /**
+     * Default constructor.
+     *
+     * @param tasks every task to be reported
+     * @param size maximum number of completed scenarios held, 0 to release
+     *            them in completion order
+     */
+    ReportWindow(List<ScenarioTask> tasks, int size) {
+        List<ScenarioTask> ordered = new ArrayList<ScenarioTask>(tasks);
+        Collections.sort(ordered, ScenarioTask.BY_FEATURE_LINE);
+        for (ScenarioTask task : ordered) {
+            FeatureWindow feature = features.get(task.getFeature());
+            if (feature == null) {
+                feature = new FeatureWindow();
+                features.put(task.getFeature(), feature);
+            }
+            positions.put(task, feature.count++);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Add a completed scenario.
+     *
+     * @param task
+     * @param result
+     * @return the scenarios to report now, in order
+     */
+    List<Map.Entry<ScenarioTask, T>> add(ScenarioTask task, T result) {
+        List<Map.Entry<ScenarioTask, T>> released = new ArrayList<Map.Entry<ScenarioTask, T>>();
+        FeatureWindow feature = features.get(task.getFeature());
+        int position = positions.get(task);
+        if (position < feature.next) {
+            // the window already gave up waiting for it
+            released.add(new SimpleEntry<ScenarioTask, T>(task, result));
+        } else {
+            feature.pending.put(position, new SimpleEntry<ScenarioTask, T>(task, result));
+            waiting++;
+            feature.release(released);
+        }
+        while (waiting > size) {
+            FeatureWindow fullest = null;
+            for (FeatureWindow candidate : features.values()) {
+                if (fullest == null || candidate.pending.size() > fullest.pending.size()) {
+                    fullest = candidate;
+                }
+            }
+            fullest.next = fullest.pending.firstKey();
+            fullest.release(released);
+        }
+        return released;
+    }
+
+    /**
+     * Number of completed scenarios held.
+     *
+     * @return int
+     */
+    int waiting() {
+        return waiting;
+    }
+
+    private final class FeatureWindow {
+
+        private final TreeMap<Integer, Map.Entry<ScenarioTask, T>> pending =
+                new TreeMap<Integer, Map.Entry<ScenarioTask, T>>();
+        private int count;
+        private int next;
+
+        private void release(List<Map.Entry<ScenarioTask, T>> released) {
+            while (!pending.isEmpty() && pending.firstKey() == next) {
+                released.add(pending.remove(next));
+                waiting--;
+                next++;
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.stratio.cucumber.testng;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cucumber.runtime.StepDefinitionMatch;
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+import gherkin.formatter.model.Background;
+import gherkin.formatter.model.Examples;
+import gherkin.formatter.model.Feature;
+import gherkin.formatter.model.Match;
+import gherkin.formatter.model.Result;
+import gherkin.formatter.model.Scenario;
+import gherkin.formatter.model.ScenarioOutline;
+import gherkin.formatter.model.Step;
+
+/**
+ * Append-only history of runs, one JSON object per line: when the run
+ * finished, the duration of every scenario (by feature path and line) and the
+ * count, mean and sum of squared deviations of the step durations per step
+ * definition pattern, all in milliseconds.
+ *
+ * Written to RUN_HISTORY_DIR/<class>.jsonl when RUN_HISTORY_DIR is set, and
+ * checked with {@link RegressionCheck}.
+ */
+public class RunHistory implements Formatter, Reporter {
+
+    public static final String DIR = "RUN_HISTORY_DIR";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RunHistory.class);
+    private static final double NANOS_PER_MS = 1000000.0;
+
+    private final File file;
+    private final Map<String, Double> scenarios = new TreeMap<String, Double>();
+    private final Map<String, Stats> steps = new TreeMap<String, Stats>();
+
+    private String uri;
+    private String scenarioId;
+    private double scenarioMs;
+    private String pattern;
+
+    /**
+     * Default constructor.
+     *
+     * @param file history file, appended to when the run is done
+     */
+    public RunHistory(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Read every run stored in a history file, oldest first. Unreadable lines
+     * are skipped.
+     *
+     * @param file
+     * @return List<JSONObject>
+     * @throws IOException
+     */
+    public static List<JSONObject> load(File file) throws IOException {
+        if (!file.exists()) {
+            return Collections.emptyList();
+        }
+        List<JSONObject> runs = new ArrayList<JSONObject>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!"".equals(line.trim())) {
+                try {
+                    runs.add(new JSONObject(line));
+                } catch (JSONException e) {
+                    LOGGER.warn("Skipping unreadable run in {}: {}", file.getPath(), e.getMessage());
+                }
+            }
+        }
+        return runs;
+    }
+
+    @Override
+    public void uri(String uri) {
+        this.uri = uri;
+    }
+
+    @Override
+    public void startOfScenarioLifeCycle(Scenario scenario) {
+        scenarioId = uri + ":" + scenario.getLine();
+        scenarioMs = 0;
+    }
+
+    @Override
+    public void match(Match match) {
+        pattern = match instanceof StepDefinitionMatch ? ((StepDefinitionMatch) match).getPattern() : null;
+    }
+
+    @Override
+    public void result(Result result) {
+        if (result.getDuration() != null) {
+            double ms = result.getDuration() / NANOS_PER_MS;
+            scenarioMs += ms;
+            if (pattern != null) {
+                Stats stats = steps.get(pattern);
+                if (stats == null) {
+                    stats = new Stats();
+                    steps.put(pattern, stats);
+                }
+                stats.add(ms);
+            }
+        }
+        pattern = null;
+    }
+
+    @Override
+    public void before(Match match, Result result) {
+        hook(result);
+    }
+
+    @Override
+    public void after(Match match, Result result) {
+        hook(result);
+    }
+
+    private void hook(Result result) {
+        if (result.getDuration() != null) {
+            scenarioMs += result.getDuration() / NANOS_PER_MS;
+        }
+    }
+
+    @Override
+    public void endOfScenarioLifeCycle(Scenario scenario) {
+        scenarios.put(scenarioId, scenarioMs);
+    }
+
+    /**
+     * The current run, as stored in the history.
+     *
+     * @return JSONObject
+     */
+    public JSONObject toJSON() {
+        JSONObject run = new JSONObject();
+        run.put("timestamp", System.currentTimeMillis());
+        JSONObject scenarioTimes = new JSONObject();
+        for (Map.Entry<String, Double> entry : scenarios.entrySet()) {
+            scenarioTimes.put(entry.getKey(), entry.getValue());
+        }
+        run.put("scenarios", scenarioTimes);
+        JSONObject stepTimes = new JSONObject();
+        for (Map.Entry<String, Stats> entry : steps.entrySet()) {
+            stepTimes.put(entry.getKey(), entry.getValue().toJSON());
+        }
+        run.put("steps", stepTimes);
+        return run;
+    }
+
+    @Override
+    public void done() {
+        if (scenarios.isEmpty()) {
+            return;
+        }
+        try {
+            Files.write(file.toPath(), Collections.singletonList(toJSON().toString()), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to append to run history {}: {}", file.getPath(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void syntaxError(String state, String event, List<String> legalEvents, String uri, Integer line) {
+    }
+
+    @Override
+    public void feature(Feature feature) {
+    }
+
+    @Override
+    public void scenarioOutline(ScenarioOutline scenarioOutline) {
+    }
+
+    @Override
+    public void examples(Examples examples) {
+    }
+
+    @Override
+    public void background(Background background) {
+    }
+
+    @Override
+    public void scenario(Scenario scenario) {
+    }
+
+    @Override
+    public void step(Step step) {
+    }
+
+    @Override
+    public void eof() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void embedding(String mimeType, byte[] data) {
+    }
+
+    @Override
+    public void write(String text) {
+    }
+
+    /**
+     * Count, mean and sum of squared deviations of a set of durations, updated
+     * one duration at a time and mergeable with other sets.
+     */
+    static final class Stats {
+
+        private long count;
+        private double mean;
+        private double m2;
+
+        Stats() {
+        }
+
+        Stats(JSONObject json) {
+            count = json.getLong("n");
+            mean = json.getDouble("mean");
+            m2 = json.getDouble("m2");
+        }
+
+        void add(double value) {
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        }
+
+        void merge(Stats other) {
+            if (other.count == 0) {
+                return;
+            }
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            m2 += other.m2 + delta * delta * count * other.count / total;
+            mean += delta * other.count / total;
+            count = total;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        double getMean() {
+            return mean;
+        }
+
+        double getVariance() {
+            return count > 1 ? m2 / (count - 1) : 0;
+        }
+
+        JSONObject toJSON() {
+            JSONObject json = new JSONObject();
+            json.put("n", count);
+            json.put("mean", mean);
+            json.put("m2", m2);
+            return json;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.stratio.cucumber.testng;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import cucumber.runtime.StepDefinitionMatch;
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+import gherkin.formatter.model.Background;
+import gherkin.formatter.model.Examples;
+import gherkin.formatter.model.Feature;
+import gherkin.formatter.model.Match;
+import gherkin.formatter.model.Result;
+import gherkin.formatter.model.Scenario;
+import gherkin.formatter.model.ScenarioOutline;
+import gherkin.formatter.model.Step;
+
+/**
+ * Live progress of a run, fed with the formatter and reporter events as they
+ * happen (in the worker threads for parallel runs), and exposed as a JMX MBean
+ * and, when PROGRESS_PORT is set, as JSON on http://localhost:<port>/progress.
+ *
+ * Runs in the same JVM, as the ones started by a parallel data provider,
+ * share a single HTTP server, listing every run in progress.
+ */
+public class RunProgress implements Formatter, Reporter, RunProgressMBean {
+
+    public static final String PORT = "PROGRESS_PORT";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RunProgress.class);
+    // guarded by RunProgress.class
+    private static final List<RunProgress> RUNS = new ArrayList<RunProgress>();
+    private static HttpServer server;
+
+    private final String name;
+    private final AtomicInteger done = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final ConcurrentMap<String, String> currentSteps = new ConcurrentHashMap<String, String>();
+    private final ThreadLocal<Boolean> scenarioFailed = new ThreadLocal<Boolean>();
+    private volatile int total;
+    private volatile double expectedMs;
+    private volatile int threads = 1;
+    private volatile long startedAt = System.currentTimeMillis();
+    private ObjectName objectName;
+
+    /**
+     * Default constructor.
+     *
+     * @param name name of the run, as the report names
+     */
+    public RunProgress(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Start publishing the progress of a run.
+     *
+     * @param total scenarios to run
+     * @param expectedMs expected duration of all of them, 0 if unknown
+     * @param threads worker threads running them
+     */
+    public synchronized void start(int total, double expectedMs, int threads) {
+        this.total = total;
+        this.expectedMs = expectedMs;
+        this.threads = Math.max(threads, 1);
+        this.startedAt = System.currentTimeMillis();
+
+        MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            objectName = new ObjectName("com.stratio.cucumber:type=RunProgress,name=" + ObjectName.quote(name));
+            if (mbeanServer.isRegistered(objectName)) {
+                mbeanServer.unregisterMBean(objectName);
+            }
+            mbeanServer.registerMBean(this, objectName);
+        } catch (JMException e) {
+            LOGGER.warn("Unable to register progress MBean: {}", e.getMessage());
+            objectName = null;
+        }
+
+        synchronized (RunProgress.class) {
+            RUNS.add(this);
+            String port = System.getProperty(PORT, "");
+            if (server == null && !"".equals(port)) {
+                startServer(port);
+            }
+        }
+    }
+
+    private static void startServer(String port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                    Integer.parseInt(port)), 0);
+            server.createContext("/progress", new HttpHandler() {
+                @Override
+                public void handle(HttpExchange exchange) throws IOException {
+                    byte[] body = runs().toString().getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, body.length);
+                    OutputStream out = exchange.getResponseBody();
+                    try {
+                        out.write(body);
+                    } finally {
+                        out.close();
+                    }
+                }
+            });
+            server.start();
+            LOGGER.info("Run progress available at http://localhost:{}/progress", port);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to publish run progress on port {}: {}", port, e.getMessage());
+            server = null;
+        }
+    }
+
+    /**
+     * Progress of every run in progress in this JVM, as served on the HTTP
+     * endpoint.
+     *
+     * @return JSONArray
+     */
+    public static synchronized JSONArray runs() {
+        JSONArray runs = new JSONArray();
+        for (RunProgress run : RUNS) {
+            runs.put(run.toJSON());
+        }
+        return runs;
+    }
+
+    /**
+     * Stop publishing the progress.
+     */
+    public synchronized void stop() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                LOGGER.debug("Unable to unregister progress MBean: {}", e.getMessage());
+            }
+            objectName = null;
+        }
+        synchronized (RunProgress.class) {
+            RUNS.remove(this);
+            if (RUNS.isEmpty() && server != null) {
+                server.stop(0);
+                server = null;
+            }
+        }
+    }
+
+    @Override
+    public int getTotal() {
+        return total;
+    }
+
+    @Override
+    public int getDone() {
+        return done.get();
+    }
+
+    @Override
+    public int getFailed() {
+        return failed.get();
+    }
+
+    @Override
+    public long getElapsedSeconds() {
+        return (System.currentTimeMillis() - startedAt) / 1000;
+    }
+
+    @Override
+    public long getEtaSeconds() {
+        int finished = done.get();
+        if (total == 0 || finished >= total) {
+            return 0;
+        }
+        double remaining = (double) (total - finished) / total;
+        if (expectedMs > 0) {
+            return (long) (expectedMs * remaining / threads / 1000);
+        }
+        if (finished == 0) {
+            return -1;
+        }
+        return (System.currentTimeMillis() - startedAt) * (total - finished) / finished / 1000;
+    }
+
+    @Override
+    public String[] getCurrentSteps() {
+        List<String> steps = new ArrayList<String>();
+        for (Map.Entry<String, String> entry : new TreeMap<String, String>(currentSteps).entrySet()) {
+            steps.add(entry.getKey() + ": " + entry.getValue());
+        }
+        return steps.toArray(new String[steps.size()]);
+    }
+
+    /**
+     * Progress as JSON.
+     *
+     * @return JSONObject
+     */
+    public JSONObject toJSON() {
+        JSONObject json = new JSONObject();
+        json.put("name", name);
+        json.put("total", getTotal());
+        json.put("done", getDone());
+        json.put("failed", getFailed());
+        json.put("elapsedSeconds", getElapsedSeconds());
+        json.put("etaSeconds", getEtaSeconds());
+        json.put("currentSteps", new TreeMap<String, String>(currentSteps));
+        return json;
+    }
+
+    @Override
+    public void startOfScenarioLifeCycle(Scenario scenario) {
+        scenarioFailed.set(Boolean.FALSE);
+        currentSteps.put(Thread.currentThread().getName(), scenario.getName());
+    }
+
+    @Override
+    public void endOfScenarioLifeCycle(Scenario scenario) {
+        currentSteps.remove(Thread.currentThread().getName());
+        if (Boolean.TRUE.equals(scenarioFailed.get())) {
+            failed.incrementAndGet();
+        }
+        scenarioFailed.remove();
+        done.incrementAndGet();
+    }
+
+    @Override
+    public void match(Match match) {
+        if (match instanceof StepDefinitionMatch) {
+            currentSteps.put(Thread.currentThread().getName(), ((StepDefinitionMatch) match).getStepName());
+        }
+    }
+
+    @Override
+    public void result(Result result) {
+        checkFailed(result);
+    }
+
+    @Override
+    public void before(Match match, Result result) {
+        checkFailed(result);
+    }
+
+    @Override
+    public void after(Match match, Result result) {
+        checkFailed(result);
+    }
+
+    private void checkFailed(Result result) {
+        if (Result.FAILED.equals(result.getStatus())) {
+            scenarioFailed.set(Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void syntaxError(String state, String event, List<String> legalEvents, String uri, Integer line) {
+    }
+
+    @Override
+    public void uri(String uri) {
+    }
+
+    @Override
+    public void feature(Feature feature) {
+    }
+
+    @Override
+    public void scenarioOutline(ScenarioOutline scenarioOutline) {
+    }
+
+    @Override
+    public void examples(Examples examples) {
+    }
+
+    @Override
+    public void background(Background background) {
+    }
+
+    @Override
+    public void scenario(Scenario scenario) {
+    }
+
+    @Override
+    public void step(Step step) {
+    }
+
+    @Override
+    public void done() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void eof() {
+    }
+
+    @Override
+    public void embedding(String mimeType, byte[] data) {
+    }
+
+    @Override
+    public void write(String text) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.stratio.cucumber.testng;
+
+/**
+ * Progress of a running cucumber run, as exposed through JMX.
+ */
+public interface RunProgressMBean {
+
+    int getTotal();
+
+    int getDone();
+
+    int getFailed();
+
+    long getElapsedSeconds();
+
+    /**
+     * Estimated seconds left, from the duration history of previous runs or
+     * else from the pace of the current one.
+     *
+     * @return long, -1 if unknown yet
+     */
+    long getEtaSeconds();
+
+    /**
+     * Step being run by every worker thread, as "thread: step".
+     *
+     * @return String[]
+     */
+    String[] getCurrentSteps();
+}
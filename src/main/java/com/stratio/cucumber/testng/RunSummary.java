@@ -0,0 +1,191 @@
+package com.stratio.cucumber.testng;
+
+import java.io.PrintStream;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+import gherkin.formatter.model.Background;
+import gherkin.formatter.model.Examples;
+import gherkin.formatter.model.Feature;
+import gherkin.formatter.model.Match;
+import gherkin.formatter.model.Result;
+import gherkin.formatter.model.Scenario;
+import gherkin.formatter.model.ScenarioOutline;
+import gherkin.formatter.model.Step;
+
+/**
+ * Scenario and step counts of a run, printed along with its errors and the
+ * snippets of its undefined steps as cucumber prints them at the end of a
+ * sequential run (without colors).
+ *
+ * Parallel runs use one cucumber runtime per worker, so the summary is built
+ * from the events replayed by ParallelRuntime instead.
+ */
+public class RunSummary implements Formatter, Reporter {
+
+    // as ordered by cucumber, from the least to the most severe
+    private static final List<String> SEVERITY = Arrays.asList("passed", "skipped", "pending", "undefined",
+            "failed");
+    private static final List<String> PRINT_ORDER = Arrays.asList("failed", "skipped", "pending", "undefined",
+            "passed");
+    private static final long ONE_MINUTE = 60000000000L;
+    private static final double ONE_SECOND = 1000000000.0;
+
+    private final int[] scenarios = new int[SEVERITY.size()];
+    private final int[] steps = new int[SEVERITY.size()];
+    private long durationNanos;
+    private int scenarioSeverity;
+
+    /**
+     * Print the summary.
+     *
+     * @param out
+     * @param errors errors of the cucumber runtimes
+     * @param snippets snippets of the undefined steps
+     */
+    public void print(PrintStream out, Collection<Throwable> errors, Collection<String> snippets) {
+        out.println();
+        if (total(steps) == 0) {
+            out.println("0 Scenarios");
+            out.println("0 Steps");
+        } else {
+            out.println(total(scenarios) + " Scenarios (" + subCounts(scenarios) + ")");
+            out.println(total(steps) + " Steps (" + subCounts(steps) + ")");
+        }
+        out.println(String.format("%dm", durationNanos / ONE_MINUTE)
+                + new DecimalFormat("0.000", new DecimalFormatSymbols(Locale.getDefault())).format(durationNanos
+                        % ONE_MINUTE / ONE_SECOND) + "s");
+        out.println();
+        for (Throwable error : errors) {
+            error.printStackTrace(out);
+            out.println();
+        }
+        if (!snippets.isEmpty()) {
+            out.append("\n");
+            out.println("You can implement missing steps with the snippets below:");
+            out.println();
+            for (String snippet : snippets) {
+                out.println(snippet);
+            }
+        }
+    }
+
+    private static int total(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static String subCounts(int[] counts) {
+        StringBuilder sb = new StringBuilder();
+        for (String status : PRINT_ORDER) {
+            int count = counts[SEVERITY.indexOf(status)];
+            if (count > 0) {
+                sb.append(sb.length() > 0 ? ", " : "").append(count).append(' ').append(status);
+            }
+        }
+        return sb.toString();
+    }
+
+    private void add(Result result) {
+        if (result.getDuration() != null) {
+            durationNanos += result.getDuration();
+        }
+        scenarioSeverity = Math.max(scenarioSeverity, severity(result.getStatus()));
+    }
+
+    private static int severity(String status) {
+        int severity = SEVERITY.indexOf(status);
+        return severity < 0 ? 0 : severity;
+    }
+
+    @Override
+    public void startOfScenarioLifeCycle(Scenario scenario) {
+        scenarioSeverity = 0;
+    }
+
+    @Override
+    public void endOfScenarioLifeCycle(Scenario scenario) {
+        scenarios[scenarioSeverity]++;
+    }
+
+    @Override
+    public void before(Match match, Result result) {
+        add(result);
+    }
+
+    @Override
+    public void result(Result result) {
+        steps[severity(result.getStatus())]++;
+        add(result);
+    }
+
+    @Override
+    public void after(Match match, Result result) {
+        add(result);
+    }
+
+    @Override
+    public void match(Match match) {
+    }
+
+    @Override
+    public void embedding(String mimeType, byte[] data) {
+    }
+
+    @Override
+    public void write(String text) {
+    }
+
+    @Override
+    public void syntaxError(String state, String event, List<String> legalEvents, String uri, Integer line) {
+    }
+
+    @Override
+    public void uri(String uri) {
+    }
+
+    @Override
+    public void feature(Feature feature) {
+    }
+
+    @Override
+    public void scenarioOutline(ScenarioOutline scenarioOutline) {
+    }
+
+    @Override
+    public void examples(Examples examples) {
+    }
+
+    @Override
+    public void background(Background background) {
+    }
+
+    @Override
+    public void scenario(Scenario scenario) {
+    }
+
+    @Override
+    public void step(Step step) {
+    }
+
+    @Override
+    public void done() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void eof() {
+    }
+}
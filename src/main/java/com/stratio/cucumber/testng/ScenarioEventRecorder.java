@@ -0,0 +1,105 @@
+package com.stratio.cucumber.testng;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import cucumber.runtime.CucumberException;
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+
+/**
+ * Records every formatter and reporter event produced while a scenario runs in
+ * a worker thread, so that they can be replayed later on the shared
+ * formatters without interleaving with other scenarios. Events can also be
+ * forwarded live, from the worker thread, to a listener that needs them as
+ * they happen.
+ */
+public final class ScenarioEventRecorder implements InvocationHandler {
+
+    private final List<Method> methods = new ArrayList<Method>();
+    private final List<Object[]> arguments = new ArrayList<Object[]>();
+    private final Object proxy;
+    private final List<Object> liveListeners = new ArrayList<Object>();
+
+    /**
+     * Constructor forwarding every event, as soon as it is received, to the
+     * given listeners too: formatter events to the ones implementing
+     * Formatter, reporter events to the ones implementing Reporter.
+     *
+     * @param liveListeners null ones are ignored
+     */
+    public ScenarioEventRecorder(Object... liveListeners) {
+        for (Object listener : liveListeners) {
+            if (listener != null) {
+                this.liveListeners.add(listener);
+            }
+        }
+        this.proxy = Proxy.newProxyInstance(ScenarioEventRecorder.class.getClassLoader(), new Class<?>[] {
+                Formatter.class, Reporter.class }, this);
+    }
+
+    /**
+     * Formatter to hand to cucumber while the scenario runs.
+     *
+     * @return Formatter
+     */
+    public Formatter formatter() {
+        return (Formatter) proxy;
+    }
+
+    /**
+     * Reporter to hand to cucumber while the scenario runs.
+     *
+     * @return Reporter
+     */
+    public Reporter reporter() {
+        return (Reporter) proxy;
+    }
+
+    @Override
+    public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return method.invoke(this, args);
+        }
+        synchronized (methods) {
+            methods.add(method);
+            arguments.add(args);
+        }
+        for (Object listener : liveListeners) {
+            if (method.getDeclaringClass().isInstance(listener)) {
+                invoke(method, listener, args);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replay the recorded events, in the order they were received.
+     *
+     * @param formatter
+     * @param reporter
+     */
+    public void replay(Formatter formatter, Reporter reporter) {
+        synchronized (methods) {
+            for (int i = 0; i < methods.size(); i++) {
+                Method method = methods.get(i);
+                invoke(method, method.getDeclaringClass() == Formatter.class ? formatter : reporter,
+                        arguments.get(i));
+            }
+        }
+    }
+
+    private static void invoke(Method method, Object target, Object[] args) {
+        try {
+            method.invoke(target, args);
+        } catch (IllegalAccessException e) {
+            throw new CucumberException(e);
+        } catch (InvocationTargetException e) {
+            throw new CucumberException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.stratio.cucumber.testng;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Deterministic split of scenarios among several JVMs or machines.
+ *
+ * Every task has a preferred shard, given by a stable hash of its feature path
+ * and scenario name (not its line, so editing other scenarios does not move
+ * it). Tasks are taken in hash order and kept in their preferred shard unless
+ * it is already full, in which case they go to the next shard with room left.
+ * Shards hold at most 10% more scenarios than an even split (scenario
+ * outlines count once per example), so they stay balanced while adding or
+ * moving a scenario only reassigns the few that overflow. Every fork computes
+ * the same partition without any coordination.
+ */
+public final class ScenarioSharder {
+
+    public static final String SHARD_INDEX = "SHARD_INDEX";
+    public static final String SHARD_COUNT = "SHARD_COUNT";
+
+    private static final double MAX_IMBALANCE = 1.1;
+
+    private final int index;
+    private final int count;
+
+    /**
+     * Default constructor.
+     *
+     * @param index shard to keep, starting at 0
+     * @param count total number of shards
+     */
+    public ScenarioSharder(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * Build a sharder from SHARD_INDEX and SHARD_COUNT system properties.
+     *
+     * @return ScenarioSharder, or null if sharding has not been requested
+     */
+    public static ScenarioSharder fromSystemProperties() {
+        String shardCount = System.getProperty(SHARD_COUNT, "");
+        if ("".equals(shardCount)) {
+            return null;
+        }
+        return new ScenarioSharder(Integer.parseInt(System.getProperty(SHARD_INDEX, "0")),
+                Integer.parseInt(shardCount));
+    }
+
+    /**
+     * Suffix used to tell apart the reports written by each shard.
+     *
+     * @return String
+     */
+    public String getReportSuffix() {
+        return "-shard" + index + "of" + count;
+    }
+
+    /**
+     * Keep the tasks belonging to this shard, in their original order.
+     *
+     * @param tasks
+     * @return List<ScenarioTask>
+     */
+    public List<ScenarioTask> select(List<ScenarioTask> tasks) {
+        List<ScenarioTask> sorted = new ArrayList<ScenarioTask>(tasks);
+        Collections.sort(sorted, new Comparator<ScenarioTask>() {
+            @Override
+            public int compare(ScenarioTask o1, ScenarioTask o2) {
+                int cmp = Long.compare(hash(key(o1)), hash(key(o2)));
+                if (cmp == 0) {
+                    cmp = key(o1).compareTo(key(o2));
+                }
+                // scenarios with the same name in the same feature
+                return cmp != 0 ? cmp : o1.getLine().compareTo(o2.getLine());
+            }
+        });
+
+        int total = 0;
+        for (ScenarioTask task : sorted) {
+            total += task.getScenarioCount();
+        }
+        int capacity = (int) Math.ceil(total * MAX_IMBALANCE / count);
+
+        int[] load = new int[count];
+        Set<ScenarioTask> owned = new HashSet<ScenarioTask>();
+        for (ScenarioTask task : sorted) {
+            int weight = task.getScenarioCount();
+            int preferred = (int) (hash(key(task)) % count);
+            int target = -1;
+            for (int i = 0; i < count && target < 0; i++) {
+                int shard = (preferred + i) % count;
+                if (load[shard] + weight <= capacity) {
+                    target = shard;
+                }
+            }
+            if (target < 0) {
+                // an outline bigger than the room left anywhere
+                target = preferred;
+                for (int i = 0; i < count; i++) {
+                    if (load[i] < load[target]) {
+                        target = i;
+                    }
+                }
+            }
+            load[target] += weight;
+            if (target == index) {
+                owned.add(task);
+            }
+        }
+
+        List<ScenarioTask> selected = new ArrayList<ScenarioTask>();
+        for (ScenarioTask task : tasks) {
+            if (owned.contains(task)) {
+                selected.add(task);
+            }
+        }
+        return selected;
+    }
+
+    private static String key(ScenarioTask task) {
+        return task.getPath().replace('\\', '/') + ":" + task.getName();
+    }
+
+    private static long hash(String id) {
+        CRC32 crc = new CRC32();
+        crc.update(id.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
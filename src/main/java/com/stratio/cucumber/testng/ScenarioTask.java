@@ -0,0 +1,111 @@
+package com.stratio.cucumber.testng;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import cucumber.runtime.model.CucumberExamples;
+import cucumber.runtime.model.CucumberFeature;
+import cucumber.runtime.model.CucumberScenarioOutline;
+import cucumber.runtime.model.CucumberTagStatement;
+
+/**
+ * A single runnable feature element (scenario or scenario outline) together
+ * with the feature it belongs to.
+ */
+public final class ScenarioTask {
+
+    /**
+     * Order of the tasks in a report: by feature path, then by line.
+     */
+    public static final Comparator<ScenarioTask> BY_FEATURE_LINE = new Comparator<ScenarioTask>() {
+        @Override
+        public int compare(ScenarioTask o1, ScenarioTask o2) {
+            int byPath = o1.getPath().compareTo(o2.getPath());
+            return byPath != 0 ? byPath : o1.getLine().compareTo(o2.getLine());
+        }
+    };
+
+    private final CucumberFeature feature;
+    private final CucumberTagStatement statement;
+
+    /**
+     * Default constructor.
+     *
+     * @param feature
+     * @param statement
+     */
+    public ScenarioTask(CucumberFeature feature, CucumberTagStatement statement) {
+        this.feature = feature;
+        this.statement = statement;
+    }
+
+    /**
+     * Split the given features into one task per feature element, keeping the
+     * order in which they were declared.
+     *
+     * @param features
+     * @return List<ScenarioTask>
+     */
+    public static List<ScenarioTask> fromFeatures(List<CucumberFeature> features) {
+        List<ScenarioTask> tasks = new ArrayList<ScenarioTask>();
+        for (CucumberFeature feature : features) {
+            for (CucumberTagStatement statement : feature.getFeatureElements()) {
+                tasks.add(new ScenarioTask(feature, statement));
+            }
+        }
+        return tasks;
+    }
+
+    public CucumberFeature getFeature() {
+        return feature;
+    }
+
+    public CucumberTagStatement getStatement() {
+        return statement;
+    }
+
+    public String getPath() {
+        return feature.getPath();
+    }
+
+    public Integer getLine() {
+        return statement.getGherkinModel().getLine();
+    }
+
+    public String getName() {
+        return statement.getGherkinModel().getName();
+    }
+
+    /**
+     * Number of scenarios run by this task: one for a plain scenario, one per
+     * example row for a scenario outline.
+     *
+     * @return int
+     */
+    public int getScenarioCount() {
+        if (!(statement instanceof CucumberScenarioOutline)) {
+            return 1;
+        }
+        int count = 0;
+        for (CucumberExamples examples : ((CucumberScenarioOutline) statement).getCucumberExamplesList()) {
+            count += Math.max(examples.getExamples().getRows().size() - 1, 0);
+        }
+        return Math.max(count, 1);
+    }
+
+    /**
+     * Identifier of the task, built from the feature path and the line where
+     * the scenario is declared.
+     *
+     * @return String
+     */
+    public String getId() {
+        return getPath() + ":" + getLine();
+    }
+
+    @Override
+    public String toString() {
+        return getId();
+    }
+}
@@ -0,0 +1,215 @@
+package com.stratio.cucumber.testng;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cucumber.runtime.StepDefinitionMatch;
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+import gherkin.formatter.model.Background;
+import gherkin.formatter.model.Examples;
+import gherkin.formatter.model.Feature;
+import gherkin.formatter.model.Match;
+import gherkin.formatter.model.Result;
+import gherkin.formatter.model.Scenario;
+import gherkin.formatter.model.ScenarioOutline;
+import gherkin.formatter.model.Step;
+
+/**
+ * Keeps the slowest scenarios, steps and hooks of a run, SLOWEST_TOP of each
+ * (10 by default), and prints them and writes them as JSON when the run is
+ * done.
+ *
+ * Only the top ones are kept, in bounded heaps, whatever the size of the run.
+ */
+public class SlowestFormatter implements Formatter, Reporter {
+
+    public static final String TOP = "SLOWEST_TOP";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowestFormatter.class);
+    private static final double NANOS_PER_MS = 1000000.0;
+
+    private final File file;
+    private final int top;
+    private final PriorityQueue<Timing> scenarios = new PriorityQueue<Timing>();
+    private final PriorityQueue<Timing> steps = new PriorityQueue<Timing>();
+    private final PriorityQueue<Timing> hooks = new PriorityQueue<Timing>();
+
+    private String uri;
+    private String scenarioName;
+    private String scenarioLocation;
+    private long scenarioNanos;
+    private String stepName;
+
+    /**
+     * Default constructor.
+     *
+     * @param file where the JSON summary is written
+     */
+    public SlowestFormatter(File file) {
+        this.file = file;
+        this.top = Integer.parseInt(System.getProperty(TOP, "10"));
+    }
+
+    @Override
+    public void uri(String uri) {
+        this.uri = uri;
+    }
+
+    @Override
+    public void startOfScenarioLifeCycle(Scenario scenario) {
+        scenarioName = scenario.getName();
+        scenarioLocation = uri + ":" + scenario.getLine();
+        scenarioNanos = 0;
+    }
+
+    @Override
+    public void match(Match match) {
+        stepName = match instanceof StepDefinitionMatch ? ((StepDefinitionMatch) match).getStepName() : null;
+    }
+
+    @Override
+    public void result(Result result) {
+        if (stepName != null && result.getDuration() != null) {
+            add(steps, new Timing(stepName, scenarioLocation, result.getDuration()));
+            scenarioNanos += result.getDuration();
+        }
+        stepName = null;
+    }
+
+    @Override
+    public void before(Match match, Result result) {
+        hook(match, result);
+    }
+
+    @Override
+    public void after(Match match, Result result) {
+        hook(match, result);
+    }
+
+    private void hook(Match match, Result result) {
+        if (result.getDuration() != null) {
+            add(hooks, new Timing(match.getLocation(), scenarioLocation, result.getDuration()));
+            scenarioNanos += result.getDuration();
+        }
+    }
+
+    @Override
+    public void endOfScenarioLifeCycle(Scenario scenario) {
+        add(scenarios, new Timing(scenarioName, scenarioLocation, scenarioNanos));
+    }
+
+    private void add(PriorityQueue<Timing> heap, Timing timing) {
+        heap.offer(timing);
+        if (heap.size() > top) {
+            heap.poll();
+        }
+    }
+
+    @Override
+    public void done() {
+        JSONObject json = new JSONObject();
+        json.put("scenarios", summary("scenarios", scenarios));
+        json.put("steps", summary("steps", steps));
+        json.put("hooks", summary("hooks", hooks));
+        try {
+            Files.write(file.toPath(), json.toString(2).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.warn("Unable to write slowest summary {}: {}", file.getPath(), e.getMessage());
+        }
+    }
+
+    private JSONArray summary(String title, PriorityQueue<Timing> heap) {
+        List<Timing> sorted = new ArrayList<Timing>(heap);
+        Collections.sort(sorted, Collections.reverseOrder());
+
+        JSONArray array = new JSONArray();
+        StringBuilder sb = new StringBuilder("Slowest ").append(title).append(":");
+        for (Timing timing : sorted) {
+            JSONObject entry = new JSONObject();
+            entry.put("name", timing.name);
+            entry.put("location", timing.location);
+            entry.put("durationMs", timing.nanos / NANOS_PER_MS);
+            array.put(entry);
+            sb.append(String.format("%n%12.1f ms  %s (%s)", timing.nanos / NANOS_PER_MS, timing.name,
+                    timing.location));
+        }
+        if (!sorted.isEmpty()) {
+            LOGGER.info(sb.toString());
+        }
+        return array;
+    }
+
+    @Override
+    public void syntaxError(String state, String event, List<String> legalEvents, String uri, Integer line) {
+    }
+
+    @Override
+    public void feature(Feature feature) {
+    }
+
+    @Override
+    public void scenarioOutline(ScenarioOutline scenarioOutline) {
+    }
+
+    @Override
+    public void examples(Examples examples) {
+    }
+
+    @Override
+    public void background(Background background) {
+    }
+
+    @Override
+    public void scenario(Scenario scenario) {
+    }
+
+    @Override
+    public void step(Step step) {
+    }
+
+    @Override
+    public void eof() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void embedding(String mimeType, byte[] data) {
+    }
+
+    @Override
+    public void write(String text) {
+    }
+
+    private static final class Timing implements Comparable<Timing> {
+
+        private final String name;
+        private final String location;
+        private final long nanos;
+
+        private Timing(String name, String location, long nanos) {
+            this.name = name;
+            this.location = location;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public int compareTo(Timing other) {
+            return nanos < other.nanos ? -1 : (nanos == other.nanos ? 0 : 1);
+        }
+    }
+}
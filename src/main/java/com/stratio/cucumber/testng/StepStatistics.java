@@ -0,0 +1,84 @@
+package com.stratio.cucumber.testng;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Duration of the steps run, per step definition pattern, written as JSON
+ * with count, min, mean, p50, p95, p99 and max (in milliseconds) for every
+ * pattern.
+ */
+public class StepStatistics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StepStatistics.class);
+
+    private final File file;
+    private final Map<String, LatencyHistogram> histograms = new TreeMap<String, LatencyHistogram>();
+
+    /**
+     * Default constructor.
+     *
+     * @param file
+     */
+    public StepStatistics(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Add the duration of a step.
+     *
+     * @param pattern step definition pattern
+     * @param nanos
+     */
+    public synchronized void record(String pattern, long nanos) {
+        LatencyHistogram histogram = histograms.get(pattern);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            histograms.put(pattern, histogram);
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * Statistics of every pattern, sorted by pattern.
+     *
+     * @return JSONArray
+     */
+    public synchronized JSONArray toJSON() {
+        JSONArray steps = new JSONArray();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            JSONObject step = new JSONObject();
+            step.put("pattern", entry.getKey());
+            step.put("count", histogram.getCount());
+            step.put("min", histogram.getMinMs());
+            step.put("mean", histogram.getMeanMs());
+            step.put("p50", histogram.getPercentileMs(0.50));
+            step.put("p95", histogram.getPercentileMs(0.95));
+            step.put("p99", histogram.getPercentileMs(0.99));
+            step.put("max", histogram.getMaxMs());
+            steps.put(step);
+        }
+        return steps;
+    }
+
+    /**
+     * Write the statistics of the run.
+     */
+    public void save() {
+        try {
+            Files.write(file.toPath(), toJSON().toString(2).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.warn("Unable to write step statistics {}: {}", file.getPath(), e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.stratio.data;
 
 import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -10,6 +11,9 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -26,13 +30,21 @@ import com.google.common.collect.Lists;
 public final class BrowsersDataProvider {
     public static final int DEFAULT_TIMEOUT = 20000;
     public static final int DEFAULT_LESS_LENGTH = 4;
+    public static final String GRID_CACHE_TTL = "SELENIUM_GRID_CACHE_TTL";
     private static final Logger LOGGER = LoggerFactory.getLogger(BrowsersDataProvider.class);
+    private static final Pattern BROWSER_TITLE = Pattern.compile("browserName=(.*?),.*?(version=(.*?))?}");
+    private static final Pattern PROXY_ID = Pattern.compile("^id\\s*:\\s*([^,\\s]+)");
+
+    private static String cachedGrid;
+    private static long cachedAt;
+    private static List<String> cachedBrowsers;
 
     private BrowsersDataProvider() {
     }
 
     /**
-     * Get the browsers available in a selenium grid.
+     * Get the browsers available in a selenium grid. The grid is asked once
+     * every SELENIUM_GRID_CACHE_TTL seconds (600 by default).
      * 
      * @param context
      * @param testConstructor
@@ -83,54 +95,178 @@ public final class BrowsersDataProvider {
     }
 
     private static List<String> gridBrowsers() {
-	ArrayList<String> response = new ArrayList<String>();
-
-	String grid = System.getProperty("SELENIUM_GRID");
-
-	if (grid != null) {        
-	    grid = "http://" + grid + "/grid/console";
-	    Document doc;
-	    try {
-		doc = Jsoup.connect(grid).timeout(DEFAULT_TIMEOUT).get();
-	    } catch (IOException e) {
-		LOGGER.debug("Exception on connecting to Selenium grid: {}", e.getMessage());
-		return response;
-	    }
-
-	    Elements slaves = (Elements) doc.select("div.proxy");
-
-	    for (Element slave : slaves) {
-		String slaveStatus = slave.select("p.proxyname").first().text();
-		if (!slaveStatus.contains("Connection") && !slaveStatus.contains("Conexión")) {
-		    Integer iBusy = 0;
-		    Elements browserList = slave.select("div.content_detail").select("*[title]");
-		    Elements busyBrowserList = slave.select("div.content_detail").select("p > .busy");
-		    for (Element browserDetails : browserList) {
-			if (browserDetails.attr("title").startsWith("{")) {
-			    Pattern pat = Pattern.compile("browserName=(.*?),.*?(version=(.*?))?}");
-			    Matcher m = pat.matcher(browserDetails.attr("title"));
-			    while (m.find()) {
-				response.add(m.group(1) + "_" + m.group(3));
-			    }
-			} else {
-			    String version = busyBrowserList.get(iBusy).parent().text();
-			    String browser = busyBrowserList.get(iBusy).text();
-			    version = version.substring(2);
-			    version = version.replace(browser, "");
-			    String browserSrc = busyBrowserList.get(iBusy).select("img").attr("src");
-			    if (!browserSrc.equals("")) {
-				browser = browserSrc.substring(browserSrc.lastIndexOf('/') + 1, browserSrc.length()
-					- DEFAULT_LESS_LENGTH);
-			    }
-			    response.add(browser + "_" + version);
-			    iBusy++;
-			}
-		    }
-		}
-	    }
-	}
-	// Sort response
-	Collections.sort(response);
-	return response;
+        String grid = System.getProperty("SELENIUM_GRID");
+        if (grid == null) {
+            return new ArrayList<String>();
+        }
+
+        long ttl = Long.parseLong(System.getProperty(GRID_CACHE_TTL, "600")) * 1000;
+        synchronized (BrowsersDataProvider.class) {
+            long now = System.currentTimeMillis();
+            if (!grid.equals(cachedGrid) || now - cachedAt > ttl) {
+                List<String> browsers = fetchGridBrowsers(grid);
+                if (browsers.isEmpty()) {
+                    // Do not keep an unreachable or empty grid for the whole TTL
+                    return browsers;
+                }
+                cachedBrowsers = browsers;
+                cachedGrid = grid;
+                cachedAt = now;
+            }
+            return new ArrayList<String>(cachedBrowsers);
+        }
+    }
+
+    private static List<String> fetchGridBrowsers(String grid) {
+        List<String> response;
+        try {
+            response = apiBrowsers(grid);
+        } catch (IOException | JSONException e) {
+            LOGGER.debug("Selenium grid API not available, reading the grid console: {}", e.getMessage());
+            response = null;
+        }
+        if (response == null) {
+            response = consoleBrowsers(grid);
+        }
+        // Sort response
+        Collections.sort(response);
+        return response;
+    }
+
+    /**
+     * Browsers of every node, asking the grid JSON API for the capabilities
+     * each node registered with. Nodes are taken from /grid/api/hub when it
+     * lists them, or else from the ids in the grid console, as a Grid 2 hub
+     * does not.
+     *
+     * @param grid
+     * @return the browsers, or null if the grid has no node
+     * @throws IOException
+     */
+    private static List<String> apiBrowsers(String grid) throws IOException {
+        List<String> nodes = parseHubNodes(get("http://" + grid + "/grid/api/hub"));
+        if (nodes == null) {
+            nodes = consoleNodes(Jsoup.connect("http://" + grid + "/grid/console").timeout(DEFAULT_TIMEOUT).get());
+        }
+        if (nodes.isEmpty()) {
+            return null;
+        }
+        List<String> response = new ArrayList<String>();
+        for (String node : nodes) {
+            response.addAll(parseProxyBrowsers(get("http://" + grid + "/grid/api/proxy?id="
+                    + URLEncoder.encode(node, "UTF-8"))));
+        }
+        return response;
+    }
+
+    private static String get(String url) throws IOException {
+        return Jsoup.connect(url).timeout(DEFAULT_TIMEOUT).ignoreContentType(true).execute().body();
+    }
+
+    /**
+     * Ids of the nodes listed by the grid /grid/api/hub endpoint.
+     *
+     * @param hub
+     * @return the ids, or null if the hub does not list its nodes
+     */
+    static List<String> parseHubNodes(String hub) {
+        JSONArray nodes = new JSONObject(hub).optJSONArray("nodes");
+        if (nodes == null) {
+            return null;
+        }
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < nodes.length(); i++) {
+            ids.add(nodes.getJSONObject(i).getString("id"));
+        }
+        return ids;
+    }
+
+    /**
+     * Ids of the nodes shown in the grid console, but the ones the hub can
+     * not connect to.
+     *
+     * @param console
+     * @return the ids
+     */
+    static List<String> consoleNodes(Document console) {
+        List<String> ids = new ArrayList<String>();
+        for (Element slave : console.select("div.proxy")) {
+            String slaveStatus = slave.select("p.proxyname").text();
+            Matcher m = PROXY_ID.matcher(slave.select("p.proxyid").text());
+            if (!slaveStatus.contains("Connection") && !slaveStatus.contains("Conexión") && m.find()) {
+                ids.add(m.group(1));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Browsers of a node, one per instance it allows, from the JSON returned
+     * by the grid /grid/api/proxy endpoint.
+     *
+     * @param proxy
+     * @return the browsers, empty if the hub does not know the node
+     */
+    static List<String> parseProxyBrowsers(String proxy) {
+        JSONObject json = new JSONObject(proxy);
+        List<String> response = new ArrayList<String>();
+        JSONObject request = json.optJSONObject("request");
+        if (!json.optBoolean("success") || request == null) {
+            return response;
+        }
+        JSONArray capabilities = request.getJSONArray("capabilities");
+        for (int i = 0; i < capabilities.length(); i++) {
+            JSONObject capability = capabilities.getJSONObject(i);
+            String browser = capability.optString("browserName") + "_" + capability.optString("version", "null");
+            for (int j = 0; j < capability.optInt("maxInstances", 1); j++) {
+                response.add(browser);
+            }
+        }
+        return response;
+    }
+
+    private static List<String> consoleBrowsers(String grid) {
+        ArrayList<String> response = new ArrayList<String>();
+
+        grid = "http://" + grid + "/grid/console";
+        Document doc;
+        try {
+            doc = Jsoup.connect(grid).timeout(DEFAULT_TIMEOUT).get();
+        } catch (IOException e) {
+            LOGGER.debug("Exception on connecting to Selenium grid: {}", e.getMessage());
+            return response;
+        }
+
+        Elements slaves = (Elements) doc.select("div.proxy");
+
+        for (Element slave : slaves) {
+            String slaveStatus = slave.select("p.proxyname").first().text();
+            if (!slaveStatus.contains("Connection") && !slaveStatus.contains("Conexión")) {
+                Integer iBusy = 0;
+                Elements browserList = slave.select("div.content_detail").select("*[title]");
+                Elements busyBrowserList = slave.select("div.content_detail").select("p > .busy");
+                for (Element browserDetails : browserList) {
+                    if (browserDetails.attr("title").startsWith("{")) {
+                        Matcher m = BROWSER_TITLE.matcher(browserDetails.attr("title"));
+                        while (m.find()) {
+                            response.add(m.group(1) + "_" + m.group(3));
+                        }
+                    } else {
+                        String version = busyBrowserList.get(iBusy).parent().text();
+                        String browser = busyBrowserList.get(iBusy).text();
+                        version = version.substring(2);
+                        version = version.replace(browser, "");
+                        String browserSrc = busyBrowserList.get(iBusy).select("img").attr("src");
+                        if (!browserSrc.equals("")) {
+                            browser = browserSrc.substring(browserSrc.lastIndexOf('/') + 1, browserSrc.length()
+                                    - DEFAULT_LESS_LENGTH);
+                        }
+                        response.add(browser + "_" + version);
+                        iBusy++;
+                    }
+                }
+            }
+        }
+        return response;
     }
 }
\ No newline at end of file
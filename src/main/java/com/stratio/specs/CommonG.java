@@ -4,28 +4,20 @@ import static com.stratio.assertions.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.testng.Assert.fail;
 
-import java.awt.image.BufferedImage;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.ThreadLocal;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.Timestamp;
 import java.util.*;
 import java.util.concurrent.Future;
 
-import javax.imageio.ImageIO;
-
-import org.apache.commons.io.FileUtils;
 import org.assertj.core.api.Condition;
 import org.hjson.JsonValue;
 import org.json.JSONObject;
@@ -40,7 +32,6 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.internal.Locatable;
 import org.openqa.selenium.remote.RemoteWebDriver;
-import org.reflections.Reflections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,7 +48,8 @@ import com.stratio.tests.utils.CassandraUtil;
 import com.stratio.tests.utils.CassandraUtils;
 import com.stratio.tests.utils.ElasticSearchUtil;
 import com.stratio.tests.utils.ElasticSearchUtils;
-import com.stratio.tests.utils.ExceptionList;
+import com.stratio.tests.utils.EvidenceWriter;
+import com.stratio.tests.utils.ExecutionsOutput;
 import com.stratio.tests.utils.HashUtils;
 import com.stratio.tests.utils.HttpResponse;
 import com.stratio.tests.utils.MongoDBUtil;
@@ -72,10 +64,10 @@ import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.Row;
 
 import cucumber.api.DataTable;
+import cucumber.api.Scenario;
 
 public class CommonG {
 
-	private static final long DEFAULT_CURRENT_TIME = 1000L;
 	private static final int DEFAULT_SLEEP_TIME = 1500;
 
 	private final Logger logger = LoggerFactory.getLogger(ThreadProperty.get("class"));
@@ -84,6 +76,8 @@ public class CommonG {
 	private String browserName = null;
 	private PreviousWebElements previousWebElements = null;
 	private String parentWindow = "";
+	private final List<Exception> exceptions = new ArrayList<Exception>();
+	private Scenario scenario;
 	
 	// COPIED FROM COMMON.JAVA
 	private AsyncHttpClient client;
@@ -160,12 +154,12 @@ public class CommonG {
 	}
 
 	/**
-	 * Get the exception list.
+	 * Get the exception list of the running scenario.
 	 * 
 	 * @return List<Exception>
 	 */
 	public List<Exception> getExceptions() {
-		return ExceptionList.INSTANCE.getExceptions();
+		return exceptions;
 	}
 	
 	/**
@@ -222,6 +216,24 @@ public class CommonG {
 		return driver;
 	}
 
+	/**
+	 * Get the running scenario.
+	 *
+	 * @return Scenario
+	 */
+	public Scenario getScenario() {
+		return scenario;
+	}
+
+	/**
+	 * Set the running scenario.
+	 *
+	 * @param scenario
+	 */
+	public void setScenario(Scenario scenario) {
+		this.scenario = scenario;
+	}
+
 	/**
 	 * Set the remote connection.
 	 *
@@ -418,25 +430,14 @@ public class CommonG {
 			if (!outputFile.equals("")) {
 				String source = ((RemoteWebDriver) driver).getPageSource();
 
-				File fout = new File(outputFile);
-				boolean dirs = fout.getParentFile().mkdirs();
-
-				FileOutputStream fos;
-				try {
-					fos = new FileOutputStream(fout, true);
-					Writer out = new OutputStreamWriter(fos, "UTF8");
-					PrintWriter writer = new PrintWriter(out, false);
-					writer.append(source);
-					writer.close();
-					out.close();
-				} catch (IOException e) {
-					logger.error("Exception on evidence capture", e);
+				if (ExecutionsOutput.gzipEvidence()) {
+					outputFile = outputFile + ExecutionsOutput.GZIP_EXTENSION;
 				}
+				EvidenceWriter.INSTANCE.writeSource(new File(outputFile), source);
 			}
 
 		} else if (type.equals("screenCapture")) {
 			outputFile = outputFile + ".png";
-			File file = null;
 			driver.switchTo().defaultContent();
 			((Locatable) driver.findElement(By.tagName("body")))
 					.getCoordinates().inViewPort();
@@ -447,83 +448,24 @@ public class CommonG {
 				actions.keyDown(Keys.CONTROL).sendKeys(Keys.HOME).perform();
 				actions.keyUp(Keys.CONTROL).perform();
 
-				file = chromeFullScreenCapture(driver);
+				chromeFullScreenCapture(driver, new File(outputFile));
 			} else {
-				file = ((TakesScreenshot) driver)
-						.getScreenshotAs(OutputType.FILE);
-			}
-			try {
-				FileUtils.copyFile(file, new File(outputFile));
-			} catch (IOException e) {
-				logger.error("Exception on copying browser screen capture", e);
+				EvidenceWriter.INSTANCE.writeScreenshot(new File(outputFile),
+						((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES));
 			}
 		}
 
+		if (scenario != null && !outputFile.equals("")) {
+			scenario.write("Evidence: " + outputFile);
+		}
 		return outputFile;
 
 	}
 
-	private File adjustLastCapture(Integer newTrailingImageHeight,
-			List<File> capture) {
-		// cuts last image just in case it dupes information
-		Integer finalHeight = 0;
-		Integer finalWidth = 0;
-
-		File trailingImage = capture.get(capture.size() - 1);
-		capture.remove(capture.size() - 1);
-
-		BufferedImage oldTrailingImage;
-		File temp = null;
-		try {
-			oldTrailingImage = ImageIO.read(trailingImage);
-			BufferedImage newTrailingImage = new BufferedImage(
-					oldTrailingImage.getWidth(), oldTrailingImage.getHeight()
-							- newTrailingImageHeight,
-					BufferedImage.TYPE_INT_RGB);
-
-			newTrailingImage.createGraphics().drawImage(oldTrailingImage, 0,
-					0 - newTrailingImageHeight, null);
-
-			File newTrailingImageF = File.createTempFile("tmpnewTrailingImage",
-					".png");
-			newTrailingImageF.deleteOnExit();
-
-			ImageIO.write(newTrailingImage, "png", newTrailingImageF);
-
-			capture.add(newTrailingImageF);
-
-			finalWidth = ImageIO.read(capture.get(0)).getWidth();
-			for (File cap : capture) {
-				finalHeight += ImageIO.read(cap).getHeight();
-			}
-
-			BufferedImage img = new BufferedImage(finalWidth, finalHeight,
-					BufferedImage.TYPE_INT_RGB);
-
-			Integer y = 0;
-			BufferedImage tmpImg = null;
-			for (File cap : capture) {
-				tmpImg = ImageIO.read(cap);
-				img.createGraphics().drawImage(tmpImg, 0, y, null);
-				y += tmpImg.getHeight();
-			}
-
-			long ts = System.currentTimeMillis() / DEFAULT_CURRENT_TIME;
-
-			temp = File.createTempFile("chromecap" + Long.toString(ts), ".png");
-			temp.deleteOnExit();
-			ImageIO.write(img, "png", temp);
-
-		} catch (IOException e) {
-			logger.error("Cant read image", e);
-		}
-		return temp;
-	}
-
-	private File chromeFullScreenCapture(WebDriver driver) {
+	private void chromeFullScreenCapture(WebDriver driver, File outputFile) {
 		driver.switchTo().defaultContent();
 		// scroll loop n times to get the whole page if browser is chrome
-		ArrayList<File> capture = new ArrayList<File>();
+		List<byte[]> capture = new ArrayList<byte[]>();
 
 		Boolean atBottom = false;
 		Integer windowSize = ((Long) ((JavascriptExecutor) driver)
@@ -538,7 +480,7 @@ public class CommonG {
 
 				Thread.sleep(DEFAULT_SLEEP_TIME);
 				capture.add(((TakesScreenshot) driver)
-						.getScreenshotAs(OutputType.FILE));
+						.getScreenshotAs(OutputType.BYTES));
 
 				((JavascriptExecutor) driver).executeScript("if(window.screen)"
 						+ " {window.scrollBy(0," + windowSize + ");};");
@@ -554,7 +496,9 @@ public class CommonG {
 		}
 
 		newTrailingImageHeight = accuScroll - getDocumentHeight(driver);
-		return adjustLastCapture(newTrailingImageHeight, capture);
+		// stitched in the background
+		EvidenceWriter.INSTANCE.writeStitched(outputFile, capture,
+				newTrailingImageHeight);
 	}
 
 	private Integer getDocumentHeight(WebDriver driver) {
@@ -852,6 +796,7 @@ public class CommonG {
 	
 	/**
 	 * Saves the value in the attribute in class extending CommonG.
+	 * If several classes extending CommonG declare the attribute, it is saved in all of them.
 	 * 
 	 * @param element attribute in class where to store the value
 	 * @param value value to be stored
@@ -867,16 +812,7 @@ public class CommonG {
 	 */
 	
 	public void setPreviousElement(String element, String value) throws NoSuchFieldException, SecurityException, IllegalArgumentException, IllegalAccessException, InstantiationException, ClassNotFoundException, NoSuchMethodException, InvocationTargetException {
-	    Reflections reflections = new Reflections("com.stratio");    
-	    Set classes = reflections.getSubTypesOf(CommonG.class);
-	    
-	    Object pp = (classes.toArray())[0];
-	    String qq = (pp.toString().split(" "))[1];
-	    Class<?> c = Class.forName(qq.toString());
-	    
-	    Field ff = c.getDeclaredField(element);
-	    ff.setAccessible(true);
-	    ff.set(null, value);
+	    CommonGFieldRegistry.INSTANCE.set(element, value);
 	}
 
     public ResultSet getCassandraResults() {
@@ -0,0 +1,102 @@
+package com.stratio.specs;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.reflections.Reflections;
+
+/**
+ * Cached setters for the static attributes declared in classes extending
+ * CommonG.
+ *
+ * Subclasses are looked up once per JVM, and every attribute is resolved into
+ * a method handle the first time it is used, so saving a value afterwards is
+ * a map lookup plus a direct write.
+ */
+public enum CommonGFieldRegistry {
+    INSTANCE;
+
+    private final ConcurrentMap<String, List<MethodHandle>> setters = new ConcurrentHashMap<String, List<MethodHandle>>();
+    private volatile List<Class<? extends CommonG>> subclasses;
+
+    /**
+     * Set the value of a static attribute in every CommonG subclass declaring
+     * it.
+     *
+     * @param element attribute name
+     * @param value value to be stored
+     * @throws NoSuchFieldException if no subclass declares the attribute
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    public void set(String element, Object value) throws NoSuchFieldException, IllegalAccessException,
+            InvocationTargetException {
+        for (MethodHandle setter : getSetters(element)) {
+            try {
+                setter.invoke(value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
+
+    private List<MethodHandle> getSetters(String element) throws NoSuchFieldException, IllegalAccessException {
+        List<MethodHandle> cached = setters.get(element);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<MethodHandle> resolved = new ArrayList<MethodHandle>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Class<? extends CommonG> clazz : getSubclasses()) {
+            Field field;
+            try {
+                field = clazz.getDeclaredField(element);
+            } catch (NoSuchFieldException e) {
+                continue;
+            }
+            if (Modifier.isStatic(field.getModifiers())) {
+                field.setAccessible(true);
+                resolved.add(lookup.unreflectSetter(field));
+            }
+        }
+        if (resolved.isEmpty()) {
+            throw new NoSuchFieldException(element);
+        }
+
+        cached = setters.putIfAbsent(element, resolved);
+        return cached == null ? resolved : cached;
+    }
+
+    private List<Class<? extends CommonG>> getSubclasses() {
+        List<Class<? extends CommonG>> classes = subclasses;
+        if (classes == null) {
+            synchronized (this) {
+                classes = subclasses;
+                if (classes == null) {
+                    classes = new ArrayList<Class<? extends CommonG>>(new Reflections("com.stratio")
+                            .getSubTypesOf(CommonG.class));
+                    Collections.sort(classes, new Comparator<Class<?>>() {
+                        @Override
+                        public int compare(Class<?> o1, Class<?> o2) {
+                            return o1.getName().compareTo(o2.getName());
+                        }
+                    });
+                    subclasses = classes;
+                }
+            }
+        }
+        return classes;
+    }
+}
@@ -86,17 +86,16 @@ public class GivenGSpec extends BaseGSpec {
         commonspec.getLogger().info("Connecting to " + clusterType + " cluster", "");
         switch (clusterType) {
             case "Cassandra":
-                commonspec.getCassandraClient().buildCluster();
-                commonspec.getCassandraClient().connect();
+                commonspec.getCassandraClient().connectIfNeeded();
                 break;
             case "Mongo":
-                commonspec.getMongoDBClient().connect();
+                commonspec.getMongoDBClient().connectIfNeeded();
                 break;
             case "Elasticsearch":
                 LinkedHashMap<String,Object> settings_map = new LinkedHashMap<String,Object>();
                 settings_map.put("cluster.name",System.getProperty("ES_CLUSTER", "elasticsearch"));
                 commonspec.getElasticSearchClient().setSettings(settings_map);
-                commonspec.getElasticSearchClient().connect();
+                commonspec.getElasticSearchClient().connectIfNeeded();
                 break;
             default:
                 throw new DBException("Unknown cluster type");
@@ -12,7 +12,6 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.assertj.core.util.Collections;
-import org.elasticsearch.ElasticsearchException;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.remote.CommandInfo;
@@ -28,8 +27,10 @@ import com.ning.http.client.AsyncHttpClientConfig;
 import com.stratio.exceptions.DBException;
 import com.stratio.tests.utils.ThreadProperty;
 import com.stratio.tests.utils.RemoteSSHConnection;
+import com.stratio.tests.utils.WebDriverPool;
 import com.thoughtworks.selenium.SeleniumException;
 
+import cucumber.api.Scenario;
 import cucumber.api.java.After;
 import cucumber.api.java.Before;
 
@@ -55,38 +56,45 @@ public class HookGSpec extends BaseGSpec {
     }
 
     /**
-     * Clean the exception list.
+     * Clean the exception list and keep the running scenario, so evidences
+     * can be referenced from the reports.
+     *
+     * @param scenario
      */
     @Before(order = 0)
-    public void globalSetup() {
+    public void globalSetup(Scenario scenario) {
         commonspec.getLogger().info("Clearing exception list");
         commonspec.getExceptions().clear();
+        commonspec.setScenario(scenario);
     }
 
     /**
-     * Connect to Cassandra.
+     * Connect to Cassandra, reusing the connection of previous scenarios of
+     * the same thread if it is still healthy.
      */
     @Before(order = ORDER_10, value = "@C*")
     public void cassandraSetup() {
         commonspec.getLogger().info("Setting up C* client");
-        commonspec.getCassandraClient().connect();
+        commonspec.getCassandraClient().connectIfNeeded();
     }
 
     /**
-     * Connect to MongoDB.
+     * Connect to MongoDB, reusing the connection of previous scenarios of the
+     * same thread if it is still healthy.
      */
     @Before(order = ORDER_10, value = "@MongoDB")
     public void mongoSetup() {
         commonspec.getLogger().info("Setting up MongoDB client");
         try {
-            commonspec.getMongoDBClient().connect();
+            commonspec.getMongoDBClient().connectIfNeeded();
         } catch (DBException e) {
             fail(e.toString());
         }
     }
 
     /**
-     * Connect to ElasticSearch.
+     * Connect to ElasticSearch, reusing the connection of previous scenarios
+     * of the same thread if it is still healthy.
      */
     @Before(order = ORDER_10, value = "@elasticsearch")
     public void elasticsearchSetup() {
@@ -95,23 +103,25 @@ public class HookGSpec extends BaseGSpec {
         settings_map.put("cluster.name",System.getProperty("ES_CLUSTER", "elasticsearch"));
         commonspec.getElasticSearchClient().setSettings(settings_map);
         try {
-            commonspec.getElasticSearchClient().connect();
+            commonspec.getElasticSearchClient().connectIfNeeded();
         }catch(UnknownHostException e){
             fail(e.toString());
         }
     }
 
     /**
-     * Connect to Aerospike.
+     * Connect to Aerospike, reusing the connection of previous scenarios of
+     * the same thread if it is still connected.
      */
     @Before(order = ORDER_10, value = "@Aerospike")
     public void aerospikeSetup() {
         commonspec.getLogger().info("Setting up Aerospike client");
-        commonspec.getAerospikeClient().connect();
+        commonspec.getAerospikeClient().connectIfNeeded();
     }
 
     /**
-     * Connect to selenium.
+     * Connect to selenium, reusing an idle session of the same browser if
+     * there is any.
      *
      * @throws MalformedURLException
      */
@@ -173,13 +183,17 @@ public class HookGSpec extends BaseGSpec {
 
         capabilities.setVersion(version);
 
-        grid = "http://" + grid + "/wd/hub";
-        HttpClient.Factory factory = new ApacheHttpClient.Factory(new HttpClientFactory(60000, 60000));
-        HttpCommandExecutor executor = new HttpCommandExecutor(new HashMap<String, CommandInfo>(), new URL(grid), factory);
-        commonspec.setDriver(new RemoteWebDriver(executor, capabilities));
-        commonspec.getDriver().manage().timeouts().pageLoadTimeout(PAGE_LOAD_TIMEOUT, TimeUnit.SECONDS);
-        commonspec.getDriver().manage().timeouts().implicitlyWait(IMPLICITLY_WAIT, TimeUnit.SECONDS);
-        commonspec.getDriver().manage().timeouts().setScriptTimeout(SCRIPT_TIMEOUT, TimeUnit.SECONDS);
+        RemoteWebDriver driver = WebDriverPool.INSTANCE.acquire(grid, b);
+        if (driver == null) {
+            HttpClient.Factory factory = new ApacheHttpClient.Factory(new HttpClientFactory(60000, 60000));
+            HttpCommandExecutor executor = new HttpCommandExecutor(new HashMap<String, CommandInfo>(), new URL("http://"
+                    + grid + "/wd/hub"), factory);
+            driver = new RemoteWebDriver(executor, capabilities);
+            driver.manage().timeouts().pageLoadTimeout(PAGE_LOAD_TIMEOUT, TimeUnit.SECONDS);
+            driver.manage().timeouts().implicitlyWait(IMPLICITLY_WAIT, TimeUnit.SECONDS);
+            driver.manage().timeouts().setScriptTimeout(SCRIPT_TIMEOUT, TimeUnit.SECONDS);
+        }
+        commonspec.setDriver(driver);
 
         commonspec.getDriver().manage().deleteAllCookies();
         if (capabilities.getCapability("deviceName") == null) {
@@ -190,62 +204,17 @@ public class HookGSpec extends BaseGSpec {
     }
 
     /**
-     * Close selenium web driver.
+     * Give the selenium session back to the pool, which quits it if the
+     * scenario failed.
+     *
+     * @param scenario
      */
     @After(order = ORDER_20, value = "@web")
-    public void seleniumTeardown() {
+    public void seleniumTeardown(Scenario scenario) {
         if (commonspec.getDriver() != null) {
-            commonspec.getLogger().info("Shutdown Selenium client");
-            commonspec.getDriver().close();
-            commonspec.getDriver().quit();
-        }
-    }
-
-    /**
-     * Close cassandra connection.
-     */
-    @After(order = ORDER_20, value = "@C*")
-    public void cassandraTeardown() {
-        commonspec.getLogger().info("Shutdown  C* client");
-        try {
-            commonspec.getCassandraClient().disconnect();
-        } catch (DBException e) {
-            fail(e.toString());
-        }
-    }
-
-    /**
-     * Close MongoDB Connection.
-     */
-    @After(order = ORDER_20, value = "@MongoDB")
-    public void mongoTeardown() {
-        commonspec.getLogger().info("Shutdown MongoDB client");
-        commonspec.getMongoDBClient().disconnect();
-    }
-
-    /**
-     * Close ElasticSearch connection.
-     */
-    @After(order = ORDER_20, value = "@elasticsearch")
-    public void elasticsearchTeardown() {
-        commonspec.getLogger().info("Shutdown elasticsearch client");
-        try {
-            commonspec.getElasticSearchClient().getClient().close();
-        } catch (ElasticsearchException e) {
-            fail(e.toString());
-        }
-    }
-
-    /**
-     * Close aerospike connection.
-     */
-    @After(order = ORDER_20, value = "@Aerospike")
-    public void aerospikeTeardown() {
-        commonspec.getLogger().info("Shutdown Aerospike client");
-        try {
-            commonspec.getAerospikeClient().disconnect();
-        } catch (DBException e) {
-            fail(e.toString());
+            commonspec.getLogger().info("Releasing Selenium client");
+            WebDriverPool.INSTANCE.release(System.getProperty("SELENIUM_GRID"), ThreadProperty.get("browser"),
+                    commonspec.getDriver(), scenario.isFailed());
         }
     }
 
@@ -1,13 +1,38 @@
 package com.stratio.tests.utils;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+/**
+ * Singelton class of AerospikeUtils.
+ *
+ * Every thread gets its own AerospikeUtils, so scenarios running at the same
+ * time on different workers never share a client.
+ */
 public enum AerospikeUtil {
     INSTANCE;
 
-    private final AerospikeUtils cUtils = new AerospikeUtils();
+    private final Queue<AerospikeUtils> created = new ConcurrentLinkedQueue<AerospikeUtils>();
+    private final ThreadLocal<AerospikeUtils> cUtils = new ThreadLocal<AerospikeUtils>() {
+        @Override
+        protected AerospikeUtils initialValue() {
+            AerospikeUtils utils = new AerospikeUtils();
+            created.add(utils);
+            return utils;
+        }
+    };
 
     public AerospikeUtils getAeroSpikeUtils() {
-        return cUtils;
+        return cUtils.get();
+    }
+
+    /**
+     * Close the client of every thread.
+     */
+    public void shutdown() {
+        for (AerospikeUtils utils : created) {
+            utils.shutdown();
+        }
     }
 
 }
\ No newline at end of file
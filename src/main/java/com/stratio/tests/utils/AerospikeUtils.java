@@ -41,20 +41,45 @@ public class AerospikeUtils {
 	public void connect() {
 		Host[] hosts = new Host[] { new Host(this.host, this.port) };
 		try {
-			client = new AerospikeClient(new ClientPolicy(), hosts);
+			client = newClient(hosts);
 			LOGGER.debug("Initializing Aerospike client");
 		} catch (AerospikeException e) {
 			LOGGER.error("Unable to connect to Aerospike", e);
 		}
 	}
 
+	AerospikeClient newClient(Host[] hosts) {
+		return new AerospikeClient(new ClientPolicy(), hosts);
+	}
+
 	/**
 	 * Check if it has connection with the aerospike server.
 	 * 
 	 * @return boolean
 	 */
-	public boolean isConnected() {
-		return client.isConnected();
+	public synchronized boolean isConnected() {
+		return client != null && client.isConnected();
+	}
+
+	/**
+	 * Connect to aerospike host, reusing the current client if it is still
+	 * connected.
+	 */
+	public synchronized void connectIfNeeded() {
+		if (!isConnected()) {
+			shutdown();
+			connect();
+		}
+	}
+
+	/**
+	 * Close the current client, if any.
+	 */
+	public synchronized void shutdown() {
+		if (client != null) {
+			client.close();
+			client = null;
+		}
 	}
 
 	/**
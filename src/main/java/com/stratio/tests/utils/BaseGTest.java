@@ -1,5 +1,6 @@
 package com.stratio.tests.utils;
 
+import java.io.File;
 import java.lang.reflect.Method;
 
 import org.slf4j.Logger;
@@ -15,19 +16,31 @@ import org.testng.annotations.BeforeSuite;
 public abstract class BaseGTest {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass().getCanonicalName());
+    private static long suiteStart = System.currentTimeMillis();
     /**
      * Method executed before a suite.
      * @param context
      */
     @BeforeSuite(alwaysRun = true)
     public void beforeGSuite(ITestContext context) {
+        suiteStart = System.currentTimeMillis();
+        HostResolver.INSTANCE.warmUp();
     }
     /**
-     * Method executed after a suite.
+     * Method executed after a suite. Datastore connections, one per thread,
+     * and selenium sessions are shared by every scenario of the suite, so
+     * they are closed here, and the output of previous runs is rotated.
      * @param context
      */
     @AfterSuite(alwaysRun = true)
     public void afterGSuite(ITestContext context) {
+        CassandraUtil.INSTANCE.shutdown();
+        MongoDBUtil.INSTANCE.shutdown();
+        ElasticSearchUtil.INSTANCE.shutdown();
+        AerospikeUtil.INSTANCE.shutdown();
+        WebDriverPool.INSTANCE.shutdown();
+        EvidenceWriter.INSTANCE.flush();
+        ExecutionsOutput.rotate(new File(ExecutionsOutput.DIR), suiteStart);
         logger.info("Done executing this test-run.");
     }
     /**
@@ -1,16 +1,38 @@
 package com.stratio.tests.utils;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 /**
  * Singelton class of cassandra utils.
  *
+ * Every thread gets its own CassandraUtils, so scenarios running at the same
+ * time on different workers never share a session.
  */
 public enum CassandraUtil {
     INSTANCE;
 
-    private final CassandraUtils cUtils = new CassandraUtils();
+    private final Queue<CassandraUtils> created = new ConcurrentLinkedQueue<CassandraUtils>();
+    private final ThreadLocal<CassandraUtils> cUtils = new ThreadLocal<CassandraUtils>() {
+        @Override
+        protected CassandraUtils initialValue() {
+            CassandraUtils utils = new CassandraUtils();
+            created.add(utils);
+            return utils;
+        }
+    };
 
     public CassandraUtils getCassandraUtils() {
-        return cUtils;
+        return cUtils.get();
+    }
+
+    /**
+     * Close the session of every thread.
+     */
+    public void shutdown() {
+        for (CassandraUtils utils : created) {
+            utils.shutdown();
+        }
     }
 
 }
\ No newline at end of file
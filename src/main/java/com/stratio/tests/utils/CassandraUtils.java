@@ -14,6 +14,7 @@ import org.slf4j.LoggerFactory;
 
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Host;
 import com.datastax.driver.core.KeyspaceMetadata;
 import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.ResultSet;
@@ -104,6 +105,52 @@ public class CassandraUtils {
 		this.cluster.close();
 	}
 
+	/**
+	 * Check if the session is open and at least one host of the cluster is up.
+	 * 
+	 * @return boolean
+	 */
+	public synchronized boolean isConnected() {
+		if (this.session == null || this.session.isClosed() || this.cluster.isClosed()) {
+			return false;
+		}
+		for (Host clusterHost : this.cluster.getMetadata().getAllHosts()) {
+			if (clusterHost.isUp()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Connect to Cassandra host, reusing the current session if it is still
+	 * healthy. A session left in a keyspace by a previous scenario is
+	 * replaced with a new one, on the same cluster, without any. Sessions
+	 * are never shared by threads (see CassandraUtil), so the one closed is
+	 * not in use by any other scenario.
+	 */
+	public synchronized void connectIfNeeded() {
+		if (!isConnected()) {
+			shutdown();
+			connect();
+		} else if (this.session.getLoggedKeyspace() != null) {
+			LOGGER.debug("Leaving keyspace " + this.session.getLoggedKeyspace());
+			this.session.close();
+			this.session = this.cluster.connect();
+		}
+	}
+
+	/**
+	 * Close the current session and cluster, if any.
+	 */
+	public synchronized void shutdown() {
+		if (this.cluster != null && !this.cluster.isClosed()) {
+			LOGGER.debug("Closing connection to cluster (" + host + ")");
+			this.cluster.close();
+		}
+		this.session = null;
+	}
+
 	/**
 	 * Get the metadata of the Cassandra Cluster.
 	 * 
@@ -123,12 +170,16 @@ public class CassandraUtils {
 	 * Build a Cassandra cluster.
 	 */
 	public void buildCluster() {
-		this.cluster = Cluster.builder().addContactPoint(this.host).build();
+		this.cluster = newCluster();
 		this.cluster.getConfiguration().getQueryOptions()
 				.setConsistencyLevel(ConsistencyLevel.ONE);
 
 	}
 
+	Cluster newCluster() {
+		return Cluster.builder().addContactPoint(this.host).build();
+	}
+
 	/**
 	 * Get the cassandra session.
 	 * 
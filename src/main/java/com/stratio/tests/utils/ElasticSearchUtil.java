@@ -1,12 +1,38 @@
 package com.stratio.tests.utils;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Singelton class of ElasticSearchUtils.
+ *
+ * Every thread gets its own ElasticSearchUtils, so scenarios running at the same
+ * time on different workers never share a client.
+ */
 public enum ElasticSearchUtil {
     INSTANCE;
 
-    private final ElasticSearchUtils cUtils = new ElasticSearchUtils();
+    private final Queue<ElasticSearchUtils> created = new ConcurrentLinkedQueue<ElasticSearchUtils>();
+    private final ThreadLocal<ElasticSearchUtils> cUtils = new ThreadLocal<ElasticSearchUtils>() {
+        @Override
+        protected ElasticSearchUtils initialValue() {
+            ElasticSearchUtils utils = new ElasticSearchUtils();
+            created.add(utils);
+            return utils;
+        }
+    };
 
     public ElasticSearchUtils getElasticSearchUtils() {
-        return cUtils;
+        return cUtils.get();
+    }
+
+    /**
+     * Close the client of every thread.
+     */
+    public void shutdown() {
+        for (ElasticSearchUtils utils : created) {
+            utils.shutdown();
+        }
     }
 
 }
\ No newline at end of file
@@ -100,11 +100,44 @@ public class ElasticSearchUtils {
      * Connect to ES.
      */
     public void connect() throws java.net.UnknownHostException{
-        this.client = new TransportClient(settings)
+        this.client = newClient();
+    }
+
+    TransportClient newClient() throws java.net.UnknownHostException {
+        return new TransportClient(settings)
                 .addTransportAddress(new InetSocketTransportAddress(InetAddress.getByName(this.es_host),
                         this.es_native_port));
     }
 
+    /**
+     * Check if the client is connected to at least one node.
+     *
+     * @return boolean
+     */
+    public synchronized boolean isConnected() {
+        return this.client != null && !((TransportClient) this.client).connectedNodes().isEmpty();
+    }
+
+    /**
+     * Connect to ES, reusing the current client if it is still healthy.
+     */
+    public synchronized void connectIfNeeded() throws java.net.UnknownHostException {
+        if (!isConnected()) {
+            shutdown();
+            connect();
+        }
+    }
+
+    /**
+     * Close the current client, if any.
+     */
+    public synchronized void shutdown() {
+        if (this.client != null) {
+            this.client.close();
+            this.client = null;
+        }
+    }
+
     /**
      * Get ES client(Connected previously).
      * @return es client
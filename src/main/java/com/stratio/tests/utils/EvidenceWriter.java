@@ -0,0 +1,208 @@
+package com.stratio.tests.utils;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes evidences in the background, so a failing step only waits for the
+ * driver to hand over the page source or the screenshot bytes, and not for
+ * them to be stitched, encoded, compressed and written.
+ *
+ * Up to EVIDENCE_QUEUE evidences (16 by default) wait to be written by
+ * EVIDENCE_THREADS threads (1 by default). When the queue is full the step
+ * writes its own evidence, so memory stays bounded and none is lost. The
+ * suite waits for pending evidences, up to EVIDENCE_FLUSH_TIMEOUT seconds (60
+ * by default), before it ends.
+ */
+public enum EvidenceWriter {
+    INSTANCE;
+
+    public static final String QUEUE = "EVIDENCE_QUEUE";
+    public static final String THREADS = "EVIDENCE_THREADS";
+    public static final String FLUSH_TIMEOUT = "EVIDENCE_FLUSH_TIMEOUT";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EvidenceWriter.class);
+
+    private final ThreadPoolExecutor executor;
+    private int pending;
+
+    private EvidenceWriter() {
+        final AtomicInteger count = new AtomicInteger();
+        int threads = Integer.parseInt(System.getProperty(THREADS, "1"));
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Integer.parseInt(System.getProperty(QUEUE, "16"))),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "evidence-writer-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Write a page source, gzipped if the file name ends with .gz.
+     *
+     * @param file
+     * @param source
+     */
+    public void writeSource(final File file, final String source) {
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    file.getParentFile().mkdirs();
+                    Writer out = new OutputStreamWriter(ExecutionsOutput.open(file), StandardCharsets.UTF_8);
+                    try {
+                        out.write(source);
+                    } finally {
+                        out.close();
+                    }
+                } catch (IOException e) {
+                    LOGGER.error("Exception on evidence capture", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Write a screenshot, as taken by the driver.
+     *
+     * @param file
+     * @param png
+     */
+    public void writeScreenshot(final File file, final byte[] png) {
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    file.getParentFile().mkdirs();
+                    OutputStream out = ExecutionsOutput.open(file);
+                    try {
+                        out.write(png);
+                    } finally {
+                        out.close();
+                    }
+                } catch (IOException e) {
+                    LOGGER.error("Exception on copying browser screen capture", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Write the screenshots taken while scrolling down a page as a single
+     * image, one below the other.
+     *
+     * @param file
+     * @param pngs screenshots, top to bottom
+     * @param trailingOverlap height of the last screenshot already shown by
+     *            the previous one, as the page cannot scroll a whole screen
+     *            further
+     */
+    public void writeStitched(final File file, final List<byte[]> pngs, final int trailingOverlap) {
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    file.getParentFile().mkdirs();
+                    ImageIO.write(stitch(pngs, trailingOverlap), "png", file);
+                } catch (IOException e) {
+                    LOGGER.error("Cant read image", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Wait for every evidence submitted so far to be written.
+     *
+     * @return boolean whether all of them were written before the timeout
+     */
+    public synchronized boolean flush() {
+        long deadline = System.nanoTime()
+                + TimeUnit.SECONDS.toNanos(Long.parseLong(System.getProperty(FLUSH_TIMEOUT, "60")));
+        try {
+            while (pending > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    LOGGER.warn("{} evidences not written after waiting for them", pending);
+                    return false;
+                }
+                wait(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    static BufferedImage stitch(List<byte[]> pngs, int trailingOverlap) throws IOException {
+        List<BufferedImage> images = new ArrayList<BufferedImage>(pngs.size());
+        for (byte[] png : pngs) {
+            images.add(ImageIO.read(new ByteArrayInputStream(png)));
+        }
+        // cuts last image just in case it dupes information
+        BufferedImage last = images.get(images.size() - 1);
+        int overlap = Math.max(0, Math.min(trailingOverlap, last.getHeight() - 1));
+        int lastHeight = last.getHeight() - overlap;
+        int width = images.get(0).getWidth();
+        int height = 0;
+        for (int i = 0; i < images.size() - 1; i++) {
+            height += images.get(i).getHeight();
+        }
+        BufferedImage img = new BufferedImage(width, height + lastHeight, BufferedImage.TYPE_INT_RGB);
+        int y = 0;
+        for (int i = 0; i < images.size() - 1; i++) {
+            img.createGraphics().drawImage(images.get(i), 0, y, null);
+            y += images.get(i).getHeight();
+        }
+        img.createGraphics().drawImage(last.getSubimage(0, overlap, last.getWidth(), lastHeight), 0, y, null);
+        return img;
+    }
+
+    private void submit(final Runnable write) {
+        synchronized (this) {
+            pending++;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    write.run();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Exception on evidence capture", e);
+                } finally {
+                    done();
+                }
+            }
+        });
+    }
+
+    private synchronized void done() {
+        pending--;
+        if (pending == 0) {
+            notifyAll();
+        }
+    }
+}
@@ -3,16 +3,24 @@ package com.stratio.tests.utils;
 import java.util.ArrayList;
 import java.util.List;
 /**
- * Exception list class(Singleton).
+ * Exception list class(Singleton), holding a separate list for every thread.
  *
+ * @deprecated steps keep the exceptions of the running scenario in
+ *             {@link com.stratio.specs.CommonG#getExceptions()}.
  */
+@Deprecated
 public enum ExceptionList {
     INSTANCE;
 
-    private final List<Exception> exceptions = new ArrayList<Exception>();
+    private final ThreadLocal<List<Exception>> exceptions = new ThreadLocal<List<Exception>>() {
+        @Override
+        protected List<Exception> initialValue() {
+            return new ArrayList<Exception>();
+        }
+    };
 
     public List<Exception> getExceptions() {
-        return exceptions;
+        return exceptions.get();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.stratio.tests.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Output written to target/executions/: optional gzip of reports
+ * (REPORTS_GZIP) and evidences (EVIDENCE_GZIP), and rotation of what previous
+ * runs left there.
+ *
+ * When a suite ends, files not written by it are deleted if they are older
+ * than EXECUTIONS_MAX_AGE_DAYS, and then oldest first while the directory
+ * takes more than EXECUTIONS_MAX_MB. Neither limit applies by default. The
+ * state every runner keeps there for its next runs (scenario durations, failed
+ * scenarios and step statistics) and the report parts of runs in progress are
+ * never deleted.
+ */
+public final class ExecutionsOutput {
+
+    public static final String DIR = "target/executions/";
+    public static final String GZIP_REPORTS = "REPORTS_GZIP";
+    public static final String GZIP_EVIDENCE = "EVIDENCE_GZIP";
+    public static final String MAX_MB = "EXECUTIONS_MAX_MB";
+    public static final String MAX_AGE_DAYS = "EXECUTIONS_MAX_AGE_DAYS";
+    public static final String GZIP_EXTENSION = ".gz";
+    public static final List<String> RUN_STATE_SUFFIXES = Arrays.asList("DURATIONS.properties", "FAILED.txt",
+            "STEPS.json", ".part");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutionsOutput.class);
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    // modification times may be truncated to the second
+    private static final long TIMESTAMP_RESOLUTION_MS = 1000;
+
+    private ExecutionsOutput() {
+    }
+
+    /**
+     * Whether reports are written gzipped.
+     *
+     * @return boolean
+     */
+    public static boolean gzipReports() {
+        return Boolean.parseBoolean(System.getProperty(GZIP_REPORTS));
+    }
+
+    /**
+     * Whether evidences are written gzipped.
+     *
+     * @return boolean
+     */
+    public static boolean gzipEvidence() {
+        return Boolean.parseBoolean(System.getProperty(GZIP_EVIDENCE));
+    }
+
+    /**
+     * Open a file for writing, gzipping what is written if its name ends with
+     * .gz.
+     *
+     * @param file
+     * @return OutputStream
+     * @throws IOException
+     */
+    public static OutputStream open(File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        return file.getName().endsWith(GZIP_EXTENSION) ? new GZIPOutputStream(out) : out;
+    }
+
+    /**
+     * Open a file for reading, gunzipping it if its name ends with .gz.
+     *
+     * @param file
+     * @return InputStream
+     * @throws IOException
+     */
+    public static InputStream read(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        return file.getName().endsWith(GZIP_EXTENSION) ? new GZIPInputStream(in) : in;
+    }
+
+    /**
+     * Apply the rotation policy configured with system properties.
+     *
+     * @param dir executions directory
+     * @param since start of the current run, whose files are always kept
+     * @return List<File> deleted files
+     */
+    public static List<File> rotate(File dir, long since) {
+        long maxBytes = Long.parseLong(System.getProperty(MAX_MB, "-1")) * BYTES_PER_MB;
+        long maxAgeMs = TimeUnit.DAYS.toMillis(Long.parseLong(System.getProperty(MAX_AGE_DAYS, "-1")));
+        return rotate(dir, since, maxBytes, maxAgeMs, System.currentTimeMillis());
+    }
+
+    /**
+     * Delete the files of previous runs older than the maximum age, and then
+     * the oldest ones while the directory is over the size budget, leaving
+     * run state alone.
+     *
+     * @param dir executions directory
+     * @param since start of the current run, whose files are always kept
+     * @param maxBytes size budget, negative for none
+     * @param maxAgeMs maximum age, negative for none
+     * @param now
+     * @return List<File> deleted files
+     */
+    public static List<File> rotate(File dir, long since, long maxBytes, long maxAgeMs, long now) {
+        List<File> files = new ArrayList<File>();
+        list(dir, files);
+        Collections.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                return Long.compare(o1.lastModified(), o2.lastModified());
+            }
+        });
+
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+
+        List<File> deleted = new ArrayList<File>();
+        for (File file : files) {
+            long modified = file.lastModified();
+            if (modified >= since - TIMESTAMP_RESOLUTION_MS) {
+                break;
+            }
+            boolean expired = maxAgeMs >= 0 && now - modified > maxAgeMs;
+            boolean overBudget = maxBytes >= 0 && total > maxBytes;
+            if (!expired && !overBudget) {
+                continue;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+                deleted.add(file);
+            }
+        }
+        if (!deleted.isEmpty()) {
+            LOGGER.info("Deleted {} files of previous runs from {}, {} MB left", deleted.size(), dir.getPath(), total
+                    / BYTES_PER_MB);
+        }
+        return deleted;
+    }
+
+    private static void list(File dir, List<File> files) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                list(child, files);
+            } else if (!isRunState(child)) {
+                files.add(child);
+            }
+        }
+    }
+
+    private static boolean isRunState(File file) {
+        for (String suffix : RUN_STATE_SUFFIXES) {
+            if (file.getName().endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
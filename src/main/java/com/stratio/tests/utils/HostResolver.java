@@ -0,0 +1,253 @@
+package com.stratio.tests.utils;
+
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.ServerSocket;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local host names, interface addresses and free ports, as used by the @{}
+ * placeholders.
+ *
+ * Interfaces and host names are looked up all at once, when the suite starts,
+ * and kept for HOST_RESOLVER_TTL seconds (300 by default). Once expired, they
+ * are looked up again in the background while the previous values are still
+ * served, so steps never wait for the network. Sub-interfaces, as eth0:1, are
+ * included, and interfaces missing from them are looked up by name the first
+ * time they are asked for, and kept, found or not, until the next refresh,
+ * which looks them up again. Free ports are picked once per name and kept for
+ * the whole run.
+ */
+public enum HostResolver {
+    INSTANCE;
+
+    public static final String TTL = "HOST_RESOLVER_TTL";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HostResolver.class);
+
+    private final ConcurrentMap<String, Integer> freePorts = new ConcurrentHashMap<String, Integer>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "host-resolver");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private volatile Snapshot snapshot;
+
+    /**
+     * Look up interfaces and host names, if not done yet.
+     */
+    public void warmUp() {
+        snapshot();
+    }
+
+    /**
+     * First IPv4 address of an interface.
+     *
+     * @param iface interface name, as in eth0
+     * @return String, or null if the interface does not exist or has no IPv4
+     *         address
+     */
+    public String getIPv4(String iface) {
+        return address(iface, Inet4Address.class);
+    }
+
+    /**
+     * First IPv6 address of an interface, without its scope.
+     *
+     * @param iface interface name, as in eth0
+     * @return String, or null if the interface does not exist or has no IPv6
+     *         address
+     */
+    public String getIPv6(String iface) {
+        String address = address(iface, Inet6Address.class);
+        return address == null || address.indexOf('%') < 0 ? address : address.substring(0, address.indexOf('%'));
+    }
+
+    /**
+     * Name of the local host.
+     *
+     * @return String, or null if it cannot be resolved
+     */
+    public String getHostName() {
+        return snapshot().hostName;
+    }
+
+    /**
+     * Fully qualified name of the local host.
+     *
+     * @return String, or null if it cannot be resolved
+     */
+    public String getCanonicalHostName() {
+        return snapshot().canonicalHostName;
+    }
+
+    /**
+     * A local TCP port free when first asked for, the same for every use of
+     * the name during the run.
+     *
+     * @param name
+     * @return int
+     * @throws IOException
+     */
+    public int getFreePort(String name) throws IOException {
+        Integer port = freePorts.get(name);
+        if (port == null) {
+            ServerSocket socket = new ServerSocket(0);
+            try {
+                port = socket.getLocalPort();
+            } finally {
+                socket.close();
+            }
+            Integer previous = freePorts.putIfAbsent(name, port);
+            port = previous == null ? port : previous;
+        }
+        return port;
+    }
+
+    /**
+     * Whether the current snapshot knows an interface, found or not.
+     *
+     * @param iface
+     * @return boolean
+     */
+    boolean isKnown(String iface) {
+        return snapshot().addresses.containsKey(iface);
+    }
+
+    private String address(String iface, Class<? extends InetAddress> type) {
+        for (InetAddress address : snapshot().get(iface)) {
+            if (type.isInstance(address)) {
+                return address.getHostAddress();
+            }
+        }
+        return null;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = Snapshot.load(null);
+                    snapshot = current;
+                }
+            }
+        } else if (System.nanoTime() - current.loadedAt > TimeUnit.SECONDS.toNanos(Long.parseLong(System
+                .getProperty(TTL, "300"))) && refreshing.compareAndSet(false, true)) {
+            final Snapshot previous = current;
+            refresher.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        snapshot = Snapshot.load(previous);
+                    } finally {
+                        refreshing.set(false);
+                    }
+                }
+            });
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+
+        // interfaces not listed when the snapshot was taken are added when asked for, empty if not found
+        private final ConcurrentMap<String, List<InetAddress>> addresses;
+        private final Set<String> lookedUp = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        private final String hostName;
+        private final String canonicalHostName;
+        private final long loadedAt = System.nanoTime();
+
+        private Snapshot(ConcurrentMap<String, List<InetAddress>> addresses, String hostName,
+                String canonicalHostName) {
+            this.addresses = addresses;
+            this.hostName = hostName;
+            this.canonicalHostName = canonicalHostName;
+        }
+
+        private List<InetAddress> get(String iface) {
+            List<InetAddress> found = addresses.get(iface);
+            if (found == null) {
+                lookedUp.add(iface);
+                found = lookUp(iface);
+                List<InetAddress> previous = addresses.putIfAbsent(iface, found);
+                found = previous == null ? found : previous;
+            }
+            return found;
+        }
+
+        // the interfaces looked up by name in the previous snapshot are looked up again
+        private static Snapshot load(Snapshot previous) {
+            ConcurrentMap<String, List<InetAddress>> addresses = new ConcurrentHashMap<String, List<InetAddress>>();
+            try {
+                Enumeration<NetworkInterface> ifaces = NetworkInterface.getNetworkInterfaces();
+                while (ifaces != null && ifaces.hasMoreElements()) {
+                    add(addresses, ifaces.nextElement());
+                }
+            } catch (SocketException e) {
+                LOGGER.warn("Unable to list network interfaces: {}", e.getMessage());
+            }
+
+            String hostName = null;
+            String canonicalHostName = null;
+            try {
+                InetAddress localHost = InetAddress.getLocalHost();
+                hostName = localHost.getHostName();
+                canonicalHostName = localHost.getCanonicalHostName();
+            } catch (UnknownHostException e) {
+                LOGGER.warn("Unable to resolve local host name: {}", e.getMessage());
+            }
+            Snapshot snapshot = new Snapshot(addresses, hostName, canonicalHostName);
+            if (previous != null) {
+                for (String iface : previous.lookedUp) {
+                    snapshot.get(iface);
+                }
+            }
+            return snapshot;
+        }
+
+        private static List<InetAddress> lookUp(String iface) {
+            try {
+                NetworkInterface networkInterface = NetworkInterface.getByName(iface);
+                return networkInterface == null ? Collections.<InetAddress> emptyList() : Collections
+                        .list(networkInterface.getInetAddresses());
+            } catch (SocketException e) {
+                LOGGER.debug("Unable to look up interface {}: {}", iface, e.getMessage());
+                return Collections.<InetAddress> emptyList();
+            }
+        }
+
+        // along with its sub-interfaces, as eth0:1
+        private static void add(Map<String, List<InetAddress>> addresses, NetworkInterface iface) {
+            addresses.put(iface.getName(), Collections.list(iface.getInetAddresses()));
+            Enumeration<NetworkInterface> subIfaces = iface.getSubInterfaces();
+            while (subIfaces.hasMoreElements()) {
+                add(addresses, subIfaces.nextElement());
+            }
+        }
+    }
+}
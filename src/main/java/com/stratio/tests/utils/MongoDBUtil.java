@@ -1,15 +1,38 @@
 package com.stratio.tests.utils;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 /**
  * Singelton class of MongoDBUtils.
  *
+ * Every thread gets its own MongoDBUtils, so scenarios running at the same
+ * time on different workers never share a client.
  */
 public enum MongoDBUtil {
     INSTANCE;
 
-    private final MongoDBUtils cUtils = new MongoDBUtils();
+    private final Queue<MongoDBUtils> created = new ConcurrentLinkedQueue<MongoDBUtils>();
+    private final ThreadLocal<MongoDBUtils> cUtils = new ThreadLocal<MongoDBUtils>() {
+        @Override
+        protected MongoDBUtils initialValue() {
+            MongoDBUtils utils = new MongoDBUtils();
+            created.add(utils);
+            return utils;
+        }
+    };
 
     public MongoDBUtils getMongoDBUtils() {
-        return cUtils;
+        return cUtils.get();
+    }
+
+    /**
+     * Close the client of every thread.
+     */
+    public void shutdown() {
+        for (MongoDBUtils utils : created) {
+            utils.shutdown();
+        }
     }
 
 }
\ No newline at end of file
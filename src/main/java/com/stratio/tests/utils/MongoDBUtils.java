@@ -15,6 +15,7 @@ import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 import com.mongodb.MongoClient;
+import com.mongodb.MongoException;
 import com.stratio.exceptions.DBException;
 
 import cucumber.api.DataTable;
@@ -48,13 +49,17 @@ public class MongoDBUtils {
 	public void connect() throws DBException {
 		try {
 			LOGGER.debug("Initializing MongoDB client");
-			mongoClient = new MongoClient(this.host, this.port);
+			mongoClient = newClient();
 		} catch (UnknownHostException e) {
 			throw new DBException(e.toString());
 
 		}
 	}
 
+	MongoClient newClient() throws UnknownHostException {
+		return new MongoClient(this.host, this.port);
+	}
+
 	/**
 	 * Disconnect of MongoDB host.
 	 */
@@ -62,6 +67,48 @@ public class MongoDBUtils {
 		mongoClient.close();
 	}
 
+	/**
+	 * Check if the MongoDB host answers to a ping.
+	 * 
+	 * @return boolean
+	 */
+	public synchronized boolean isConnected() {
+		if (mongoClient == null) {
+			return false;
+		}
+		try {
+			return mongoClient.getDB("admin").command("ping").ok();
+		} catch (MongoException e) {
+			LOGGER.debug("MongoDB ping failed: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Connect to MongoDB host, reusing the current client if it is still
+	 * healthy. The database selected by a previous scenario is forgotten, as
+	 * Cassandra does with the keyspace.
+	 * 
+	 * @throws DBException
+	 */
+	public synchronized void connectIfNeeded() throws DBException {
+		if (!isConnected()) {
+			shutdown();
+			connect();
+		}
+		dataBase = null;
+	}
+
+	/**
+	 * Close the current client, if any.
+	 */
+	public synchronized void shutdown() {
+		if (mongoClient != null) {
+			mongoClient.close();
+			mongoClient = null;
+		}
+	}
+
 	/**
 	 * Connect to DataBase of MongoDB(If it not exists, it will be created).
 	 * 
@@ -71,6 +118,15 @@ public class MongoDBUtils {
 		dataBase = mongoClient.getDB(db);
 	}
 
+	/**
+	 * Get the database selected by the current scenario.
+	 * 
+	 * @return DB, or null if none has been selected
+	 */
+	public DB getDataBase() {
+		return dataBase;
+	}
+
 	/**
 	 * Checks if a database exists in MongoDB.
 	 * 
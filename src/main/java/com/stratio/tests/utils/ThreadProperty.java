@@ -34,4 +34,36 @@ public final class ThreadProperty {
 	public static String get(String key) {
 		return PROPS.get().getProperty(key);
 	}
+
+	/**
+	 * Get a copy of every property shared by the current thread.
+	 * 
+	 * @return Properties
+	 */
+	public static Properties getAll() {
+		Properties copy = new Properties();
+		copy.putAll(PROPS.get());
+		return copy;
+	}
+
+	/**
+	 * Share a whole set of properties in the current thread.
+	 * 
+	 * @param props
+	 */
+	public static void setAll(Properties props) {
+		PROPS.get().putAll(props);
+	}
+
+	/**
+	 * Replace every property shared by the current thread with a copy of the
+	 * given ones.
+	 * 
+	 * @param props
+	 */
+	public static void replaceAll(Properties props) {
+		Properties copy = new Properties();
+		copy.putAll(props);
+		PROPS.set(copy);
+	}
 }
@@ -0,0 +1,127 @@
+package com.stratio.tests.utils;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of live selenium sessions, per grid, browser and version.
+ *
+ * A session released after a successful scenario is reset (windows opened by
+ * the scenario, storage, cookies and about:blank) and kept for the next
+ * scenario asking for the same browser on the same grid.
+ * It is quit instead if the scenario failed or it has already been used
+ * SELENIUM_SESSION_USES times (10 by default).
+ */
+public enum WebDriverPool {
+    INSTANCE;
+
+    public static final String SESSION_USES = "SELENIUM_SESSION_USES";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebDriverPool.class);
+    private static final String CLEAR_STORAGE = "try { window.localStorage.clear(); } catch (e) {}"
+            + " try { window.sessionStorage.clear(); } catch (e) {}";
+
+    private final ConcurrentMap<String, Queue<RemoteWebDriver>> idle = new ConcurrentHashMap<String, Queue<RemoteWebDriver>>();
+    private final Map<RemoteWebDriver, Integer> uses = new ConcurrentHashMap<RemoteWebDriver, Integer>();
+
+    /**
+     * Take an idle session of the given browser, checking it is still alive.
+     *
+     * @param grid selenium grid, as in host:port
+     * @param browser browser and version, as in chrome_33
+     * @return RemoteWebDriver, or null if there is no idle session available
+     */
+    public RemoteWebDriver acquire(String grid, String browser) {
+        Queue<RemoteWebDriver> queue = idle.get(key(grid, browser));
+        RemoteWebDriver driver;
+        while (queue != null && (driver = queue.poll()) != null) {
+            try {
+                driver.getWindowHandle();
+                LOGGER.debug("Reusing {} selenium session {}", browser, driver.getSessionId());
+                return driver;
+            } catch (WebDriverException e) {
+                LOGGER.debug("Discarding dead {} selenium session: {}", browser, e.getMessage());
+                quit(driver);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Give back a session once the scenario using it has finished.
+     *
+     * @param grid selenium grid, as in host:port
+     * @param browser browser and version, as in chrome_33
+     * @param driver
+     * @param failed whether the scenario failed, in which case the session is
+     *            quit
+     */
+    public void release(String grid, String browser, RemoteWebDriver driver, boolean failed) {
+        Integer count = uses.get(driver);
+        int used = count == null ? 1 : count + 1;
+        if (failed || used >= Integer.parseInt(System.getProperty(SESSION_USES, "10"))) {
+            quit(driver);
+            return;
+        }
+        try {
+            Iterator<String> handles = driver.getWindowHandles().iterator();
+            String first = handles.next();
+            while (handles.hasNext()) {
+                driver.switchTo().window(handles.next());
+                driver.close();
+            }
+            driver.switchTo().window(first);
+            driver.executeScript(CLEAR_STORAGE);
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+        } catch (WebDriverException e) {
+            LOGGER.debug("Unable to reset {} selenium session: {}", browser, e.getMessage());
+            quit(driver);
+            return;
+        }
+        uses.put(driver, used);
+        Queue<RemoteWebDriver> queue = idle.get(key(grid, browser));
+        if (queue == null) {
+            Queue<RemoteWebDriver> created = new ConcurrentLinkedQueue<RemoteWebDriver>();
+            queue = idle.putIfAbsent(key(grid, browser), created);
+            if (queue == null) {
+                queue = created;
+            }
+        }
+        queue.offer(driver);
+    }
+
+    /**
+     * Quit every idle session.
+     */
+    public void shutdown() {
+        for (Queue<RemoteWebDriver> queue : idle.values()) {
+            RemoteWebDriver driver;
+            while ((driver = queue.poll()) != null) {
+                quit(driver);
+            }
+        }
+    }
+
+    private static String key(String grid, String browser) {
+        return grid + "/" + browser;
+    }
+
+    private void quit(RemoteWebDriver driver) {
+        uses.remove(driver);
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            LOGGER.debug("Unable to quit selenium session: {}", e.getMessage());
+        }
+    }
+}
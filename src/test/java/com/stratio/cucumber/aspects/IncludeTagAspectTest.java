@@ -2,6 +2,10 @@ package com.stratio.cucumber.aspects;
 
 
 import com.stratio.exceptions.IncludeException;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import org.hamcrest.Matchers;
 import org.testng.annotations.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -48,4 +52,53 @@ public class IncludeTagAspectTest {
 
     }
 
-}
\ No newline at end of file
+    private File feature(File dir, String name, String content) throws Exception {
+        File f = new File(dir, name);
+        Files.write(f.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return f;
+    }
+
+    @Test
+    public void testNestedInclude() throws Exception {
+        File dir = Files.createTempDirectory("include").toFile();
+        feature(dir, "login.feature", "Feature: Login\n\n  Scenario: Open\n    Given I open the browser\n\n"
+                + "  @include(feature: login.feature,scenario: Open)\n  Scenario: Log in\n    Given I log in\n");
+
+        assertThat("Test that nested includes are resolved in order", "    Given I open the browser\n    Given I log in\n",
+                is(inctag.featureStepConverter(new File(dir, "login.feature").getPath(), "Log in", null)));
+        assertThat("Test that included scenarios do not take the tags of the next one", "    Given I open the browser\n",
+                is(inctag.featureStepConverter(new File(dir, "login.feature").getPath(), "Open", null)));
+    }
+
+    @Test(expectedExceptions = IncludeException.class, expectedExceptionsMessageRegExp = ".*Cyclic include.*")
+    public void testCyclicInclude() throws Exception {
+        File dir = Files.createTempDirectory("include").toFile();
+        feature(dir, "a.feature", "Feature: A\n\n  @include(feature: b.feature,scenario: B)\n  Scenario: A\n    Given a\n");
+        feature(dir, "b.feature", "Feature: B\n\n  @include(feature: a.feature,scenario: A)\n  Scenario: B\n    Given b\n");
+
+        inctag.featureStepConverter(new File(dir, "a.feature").getPath(), "A", null);
+    }
+
+    @Test(expectedExceptions = IncludeException.class, expectedExceptionsMessageRegExp = ".*Cyclic include.*")
+    public void testRelativeCyclicInclude() throws Exception {
+        File dir = Files.createTempDirectory("include").toFile();
+        File sub = new File(dir, "sub");
+        sub.mkdirs();
+        feature(sub, "a.feature",
+                "Feature: A\n\n  @include(feature: ../sub/b.feature,scenario: B)\n  Scenario: A\n    Given a\n");
+        feature(sub, "b.feature",
+                "Feature: B\n\n  @include(feature: ../sub/a.feature,scenario: A)\n  Scenario: B\n    Given b\n");
+
+        inctag.featureStepConverter(new File(sub, "a.feature").getPath(), "A", null);
+    }
+
+    @Test
+    public void testFeatureIndexCanonicalKey() throws Exception {
+        File dir = Files.createTempDirectory("include").toFile();
+        new File(dir, "sub").mkdirs();
+        File feature = feature(dir, "a.feature", "Feature: A\n\n  Scenario: A\n    Given a\n");
+
+        assertTrue(FeatureIndex.of(feature) == FeatureIndex.of(new File(dir, "sub/../a.feature")),
+                "Test that a feature is indexed once whatever the path it is reached by");
+    }
+}
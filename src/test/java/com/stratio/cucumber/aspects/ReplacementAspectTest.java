@@ -48,4 +48,34 @@ public class ReplacementAspectTest {
         assertThat(repAspect.replaceEnvironmentPlaceholders("|${STRATIOBDD_ENV.toUpper}|:|${STRATIOBDD_ENV2}|")).as("Unexpected replacement").isEqualTo("||:|aA|");
         assertThat(repAspect.replaceEnvironmentPlaceholders("|${STRATIOBDD_ENV2}.toUpper")).as("Unexpected replacement").isEqualTo("|aA.toUpper");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void replaceMixedPlaceholdersTest() throws Exception {
+        ThreadProperty.set("class", this.getClass().getCanonicalName());
+        ReplacementAspect repAspect = new ReplacementAspect();
+        System.setProperty("STRATIOBDD_ENV1", "33");
+        System.setProperty("STRATIOBDD_ENV3", "STRATIOBDD_SAVED");
+        ThreadProperty.set("STRATIOBDD_SAVED", "bb");
+
+        String literal = "{\"key\": \"$value\"}";
+        assertThat(repAspect.replacePlaceholders(literal)).as("Strings without placeholders must be kept").isSameAs(literal);
+        assertThat(repAspect.replacePlaceholders("{\"key\": \"${STRATIOBDD_ENV1}\", \"other\": \"!{STRATIOBDD_SAVED}\"}"))
+            .as("Unexpected replacement").isEqualTo("{\"key\": \"33\", \"other\": \"bb\"}");
+        assertThat(repAspect.replacePlaceholders("!{${STRATIOBDD_ENV3}}")).as("Unexpected nested replacement").isEqualTo("bb");
+        assertThat(repAspect.replaceEnvironmentPlaceholders("!{${STRATIOBDD_ENV3}}")).as("Unexpected partial replacement")
+            .isEqualTo("!{STRATIOBDD_SAVED}");
+        assertThat(repAspect.replacePlaceholders("${STRATIOBDD_ENV1")).as("Unclosed placeholders must be kept")
+            .isEqualTo("${STRATIOBDD_ENV1");
+    }
+
+    @Test
+    public void replaceMissingAttributeTest() {
+        ReplacementAspect repAspect = new ReplacementAspect();
+        try {
+            repAspect.replacePlaceholders("!{STRATIOBDD_NEVER_SAVED}");
+            throw new AssertionError("A missing attribute must not be replaced");
+        } catch (Exception e) {
+            assertThat(e.getMessage()).as("Unexpected message").isEqualTo("Attribute STRATIOBDD_NEVER_SAVED not saved");
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.stratio.cucumber.aspects;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.json.JSONObject;
+
+/**
+ * Loads every class of the cucumber, gherkin, selenium, assertj and stratio
+ * packages found in the classpath (or of the package prefixes given as
+ * arguments, as in org/openqa/selenium/) and prints, as JSON, how long it took
+ * and the uptime of the JVM once done.
+ *
+ * Loading is where the aspects are woven with load-time weaving, so running it
+ * with -javaagent:aspectjweaver.jar and then against the classes woven by the
+ * ctw profile, without the agent, shows what weaving at startup costs.
+ */
+public final class StartupBenchmark {
+
+    private static final List<String> PACKAGES = Arrays.asList("cucumber/", "gherkin/", "org/openqa/selenium/",
+            "org/assertj/core/", "com/stratio/");
+    private static final double NANOS_PER_MS = 1000000.0;
+
+    private StartupBenchmark() {
+    }
+
+    /**
+     * @param args package prefixes to load, the default ones if none
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> packages = args.length > 0 ? Arrays.asList(args) : PACKAGES;
+
+        long start = System.nanoTime();
+        // a class found in several classpath entries is loaded once
+        Set<String> classes = new LinkedHashSet<String>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            File file = new File(entry);
+            if (file.isDirectory()) {
+                listDirectory(file, "", packages, classes);
+            } else if (file.isFile()) {
+                listJar(file, packages, classes);
+            }
+        }
+        long listed = System.nanoTime();
+
+        int loaded = 0;
+        int failed = 0;
+        ClassLoader loader = StartupBenchmark.class.getClassLoader();
+        for (String name : classes) {
+            try {
+                Class.forName(name, false, loader);
+                loaded++;
+            } catch (ClassNotFoundException | LinkageError e) {
+                // optional dependencies of the libraries scanned
+                failed++;
+            }
+        }
+        long end = System.nanoTime();
+
+        JSONObject result = new JSONObject();
+        result.put("weaving", isLoadTimeWeaving() ? "load-time" : "none");
+        result.put("classes", loaded);
+        result.put("failed", failed);
+        result.put("listMs", (listed - start) / NANOS_PER_MS);
+        result.put("loadMs", (end - listed) / NANOS_PER_MS);
+        result.put("uptimeMs", ManagementFactory.getRuntimeMXBean().getUptime());
+        System.out.println(result.toString());
+    }
+
+    private static boolean isLoadTimeWeaving() {
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-javaagent") && argument.contains("aspectj")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void listJar(File file, List<String> packages, Set<String> classes) throws IOException {
+        JarFile jar = new JarFile(file);
+        try {
+            for (JarEntry entry : Collections.list(jar.entries())) {
+                add(entry.getName(), packages, classes);
+            }
+        } finally {
+            jar.close();
+        }
+    }
+
+    private static void listDirectory(File dir, String path, List<String> packages, Set<String> classes) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                listDirectory(child, path + child.getName() + "/", packages, classes);
+            } else {
+                add(path + child.getName(), packages, classes);
+            }
+        }
+    }
+
+    private static void add(String resource, List<String> packages, Set<String> classes) {
+        if (!resource.endsWith(".class")) {
+            return;
+        }
+        for (String prefix : packages) {
+            if (resource.startsWith(prefix)) {
+                classes.add(resource.substring(0, resource.length() - ".class".length()).replace('/', '.'));
+                return;
+            }
+        }
+    }
+}
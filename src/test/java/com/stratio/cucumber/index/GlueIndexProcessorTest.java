@@ -0,0 +1,101 @@
+package com.stratio.cucumber.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.testng.annotations.Test;
+
+public class GlueIndexProcessorTest {
+
+    private File source(File dir, String pkg, String name, String body) throws Exception {
+        File pkgDir = new File(dir, pkg.replace('.', '/'));
+        pkgDir.mkdirs();
+        File f = new File(pkgDir, name + ".java");
+        Files.write(f.toPath(), ("package " + pkg + ";\n" + body).getBytes(StandardCharsets.UTF_8));
+        return f;
+    }
+
+    @Test
+    public void indexGlueAndFormattersTest() throws Exception {
+        File src = Files.createTempDirectory("src").toFile();
+        File out = Files.createTempDirectory("out").toFile();
+        File steps = source(src, "com.acme.specs", "Steps",
+                "public class Steps { @cucumber.api.java.en.Given(\"^a step$\") public void step() {} }");
+        File hooks = source(src, "com.acme.hooks", "Hooks",
+                "public class Hooks { @cucumber.api.java.Before public void setup() {} }");
+        File other = source(src, "com.acme.other", "Other", "public class Other { public void none() {} }");
+        File formatter = source(src, "com.acme.other", "MyFormatter",
+                "public abstract class MyFormatter implements com.stratio.cucumber.testng.ICucumberFormatter {}");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int rc = compiler.run(null, null, null, "-d", out.getPath(), "-cp", System.getProperty("java.class.path"),
+                "-processor", GlueIndexProcessor.class.getName(), steps.getPath(), hooks.getPath(), other.getPath(),
+                formatter.getPath());
+        assertThat(rc).as("Compilation failed").isEqualTo(0);
+
+        File index = new File(out, GlueIndex.INDEX_RESOURCE);
+        assertThat(Files.readAllLines(index.toPath(), StandardCharsets.UTF_8)).as("Unexpected index")
+                .containsExactly("glue:com.acme.hooks", "glue:com.acme.specs", "glueclass:com.acme.hooks.Hooks",
+                        "glueclass:com.acme.specs.Steps");
+
+        URLClassLoader loader = new URLClassLoader(new URL[] { out.toURI().toURL() }, null);
+        GlueIndex glueIndex = GlueIndex.load(loader);
+        assertThat(glueIndex.getGlue()).as("Unexpected glue").isEqualTo(
+                Arrays.asList("classpath:com/acme/hooks", "classpath:com/acme/specs"));
+        assertThat(glueIndex.getFormatters()).as("Abstract formatters must not be indexed").isEmpty();
+    }
+
+    @Test
+    public void incrementalCompilationTest() throws Exception {
+        File src = Files.createTempDirectory("src").toFile();
+        File out = Files.createTempDirectory("out").toFile();
+        File steps = source(src, "com.acme.specs", "Steps",
+                "public class Steps { @cucumber.api.java.en.Given(\"^a step$\") public void step() {} }");
+        File hooks = source(src, "com.acme.hooks", "Hooks",
+                "public class Hooks { @cucumber.api.java.Before public void setup() {} }");
+        File other = source(src, "com.acme.other", "Other", "public class Other { public void none() {} }");
+        String classpath = out.getPath() + File.pathSeparator + System.getProperty("java.class.path");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertThat(compiler.run(null, null, null, "-d", out.getPath(), "-cp", classpath, "-processor",
+                GlueIndexProcessor.class.getName(), steps.getPath(), hooks.getPath(), other.getPath()))
+                .as("Compilation failed").isEqualTo(0);
+
+        // only the classes changed are recompiled, and Hooks is no longer glue
+        source(src, "com.acme.hooks", "Hooks", "public class Hooks { public void setup() {} }");
+        assertThat(compiler.run(null, null, null, "-d", out.getPath(), "-cp", classpath, "-processor",
+                GlueIndexProcessor.class.getName(), hooks.getPath(), other.getPath()))
+                .as("Compilation failed").isEqualTo(0);
+
+        File index = new File(out, GlueIndex.INDEX_RESOURCE);
+        assertThat(Files.readAllLines(index.toPath(), StandardCharsets.UTF_8)).as(
+                "The entries of classes not recompiled must be kept").containsExactly("glue:com.acme.specs",
+                "glueclass:com.acme.specs.Steps");
+    }
+
+    @Test
+    public void consumerEntriesTest() throws Exception {
+        URL bdtLib = GlueIndex.class.getProtectionDomain().getCodeSource().getLocation();
+        GlueIndex own = GlueIndex.load(new URLClassLoader(new URL[] { bdtLib }, null));
+        assertThat(own.getGlue()).as("Unexpected glue of bdt-lib").contains("classpath:com/stratio/specs");
+        assertThat(own.hasConsumerEntries()).as("The index of bdt-lib is not a consumer one").isFalse();
+
+        File out = Files.createTempDirectory("out").toFile();
+        File index = new File(out, GlueIndex.INDEX_RESOURCE);
+        index.getParentFile().mkdirs();
+        Files.write(index.toPath(), "glue:com.acme.specs\n".getBytes(StandardCharsets.UTF_8));
+        GlueIndex consumer = GlueIndex.load(new URLClassLoader(new URL[] { bdtLib, out.toURI().toURL() }, null));
+        assertThat(consumer.getGlue()).as("Unexpected merged glue").containsExactly("classpath:com/stratio/specs",
+                "classpath:com/acme/specs");
+        assertThat(consumer.hasConsumerEntries()).as("Consumer index not detected").isTrue();
+    }
+}
@@ -0,0 +1,110 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import gherkin.formatter.model.Comment;
+import gherkin.formatter.model.Feature;
+import gherkin.formatter.model.Result;
+import gherkin.formatter.model.Scenario;
+import gherkin.formatter.model.Step;
+import gherkin.formatter.model.Tag;
+
+public class CucumberReporterTest {
+
+    private static final List<Comment> NO_COMMENTS = Collections.emptyList();
+    private static final List<Tag> NO_TAGS = Collections.emptyList();
+
+    private void scenario(CucumberReporter reporter, String name, int line, Result result) {
+        Scenario scenario = new Scenario(NO_COMMENTS, NO_TAGS, "Scenario", name, "", line, name);
+        reporter.scenario(scenario);
+        reporter.startOfScenarioLifeCycle(scenario);
+        reporter.step(new Step(NO_COMMENTS, "Given ", "a step with ]]> inside", line + 1, null, null));
+        reporter.result(result);
+        reporter.embedding("text/plain", "evidence".getBytes(StandardCharsets.UTF_8));
+        reporter.endOfScenarioLifeCycle(scenario);
+    }
+
+    @Test
+    public void streamedReportTest() throws Exception {
+        File dir = Files.createTempDirectory("reports").toFile();
+        CucumberReporter reporter = new CucumberReporter(dir.getPath() + "/", "my.Class", "");
+        reporter.uri("features/a.feature");
+        reporter.feature(new Feature(NO_COMMENTS, NO_TAGS, "Feature", "A", "", 1, "a"));
+        scenario(reporter, "passing", 3, new Result("passed", 1000000L, null, null));
+        scenario(reporter, "failing", 6, new Result("failed", 2000000L, new RuntimeException("boom"), null));
+        reporter.eof();
+        reporter.done();
+
+        assertThat(dir.list()).as("Part files not removed").doesNotContain("my.ClassTESTNG.xml.0.part",
+                "my.ClassJUNIT.xml.0.part");
+
+        Document testng = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new File(dir, "my.ClassTESTNG.xml"));
+        Element results = testng.getDocumentElement();
+        assertThat(results.getAttribute("total")).as("Unexpected total").isEqualTo("2");
+        assertThat(results.getAttribute("passed")).as("Unexpected passed").isEqualTo("1");
+        assertThat(results.getAttribute("failed")).as("Unexpected failed").isEqualTo("1");
+        assertThat(testng.getElementsByTagName("test-method").getLength()).as("Unexpected test methods").isEqualTo(2);
+        assertThat(testng.getElementsByTagName("attachment").getLength()).as("Unexpected attachments").isEqualTo(2);
+        assertThat(new File(((Element) testng.getElementsByTagName("attachment").item(0)).getAttribute("path")))
+                .as("Embedding not stored").exists();
+
+        Document junit = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new File(dir, "my.ClassJUNIT.xml"));
+        assertThat(junit.getElementsByTagName("failure").getLength()).as("Unexpected failures").isEqualTo(1);
+        assertThat(junit.getElementsByTagName("system-out").item(0).getTextContent()).as("Unexpected output")
+                .contains("a step with ]]> inside");
+
+        assertThat(Files.readAllLines(new File(dir, "my.ClassFAILED.txt").toPath(),
+                StandardCharsets.UTF_8)).as("Unexpected failures file").containsExactly(
+                "features/a.feature:6");
+    }
+
+    private void feature(CucumberReporter reporter, String uri, String name) {
+        reporter.uri(uri);
+        reporter.feature(new Feature(NO_COMMENTS, NO_TAGS, "Feature", name, "", 1, name));
+    }
+
+    @Test
+    public void interleavedFeaturesTest() throws Exception {
+        File dir = Files.createTempDirectory("reports").toFile();
+        CucumberReporter reporter = new CucumberReporter(dir.getPath() + "/", "my.Class", "");
+        feature(reporter, "features/b.feature", "B");
+        scenario(reporter, "b1", 3, new Result("passed", 1000000L, null, null));
+        reporter.eof();
+        feature(reporter, "features/a.feature", "A");
+        scenario(reporter, "a1", 3, new Result("passed", 1000000L, null, null));
+        reporter.eof();
+        feature(reporter, "features/b.feature", "B");
+        scenario(reporter, "b2", 6, new Result("passed", 1000000L, null, null));
+        reporter.eof();
+        reporter.done();
+
+        Document testng = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new File(dir, "my.ClassTESTNG.xml"));
+        NodeList methods = testng.getElementsByTagName("test-method");
+        List<String> names = new ArrayList<String>();
+        for (int i = 0; i < methods.getLength(); i++) {
+            names.add(((Element) methods.item(i)).getAttribute("name"));
+        }
+        assertThat(names).as("Features must be reported by path").containsExactly("a1", "b1", "b2");
+        assertThat(testng.getElementsByTagName("class").getLength()).as("Unexpected classes").isEqualTo(2);
+        Document junit = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new File(dir, "my.ClassJUNIT.xml"));
+        assertThat(junit.getElementsByTagName("testcase").getLength()).as("Unexpected test cases").isEqualTo(3);
+    }
+}
@@ -0,0 +1,33 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.testng.annotations.Test;
+
+public class DurationHistoryTest {
+
+    @Test
+    public void saveAndReloadTest() throws Exception {
+        File file = new File(Files.createTempDirectory("history").toFile(), "DURATIONS.properties");
+
+        DurationHistory history = new DurationHistory(file);
+        assertThat(history.get("a.feature:3")).as("Unexpected duration without history").isNull();
+        history.record("a.feature:3", 100);
+        history.record("a.feature:10", 40);
+        history.record("a.feature:10", 20);
+        history.save();
+
+        history = new DurationHistory(file);
+        assertThat(history.get("a.feature:3")).as("Unexpected duration").isEqualTo(100.0);
+        assertThat(history.get("a.feature:10")).as("Outline examples must be added up").isEqualTo(60.0);
+        history.record("a.feature:3", 300);
+        history.save();
+
+        history = new DurationHistory(file);
+        assertThat(history.get("a.feature:3")).as("Unexpected averaged duration").isEqualTo(200.0);
+        assertThat(history.get("a.feature:10")).as("Scenarios not run must be kept").isEqualTo(60.0);
+    }
+}
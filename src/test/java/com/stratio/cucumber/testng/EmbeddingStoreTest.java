@@ -0,0 +1,29 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.testng.annotations.Test;
+
+public class EmbeddingStoreTest {
+
+    @Test
+    public void deduplicateTest() throws Exception {
+        File dir = Files.createTempDirectory("embeddings").toFile();
+        EmbeddingStore store = new EmbeddingStore(dir);
+
+        File first = store.store("text/html", "<html/>".getBytes(StandardCharsets.UTF_8));
+        File second = store.store("text/html", "<html/>".getBytes(StandardCharsets.UTF_8));
+        File other = store.store("image/png", new byte[] { 1, 2, 3 });
+
+        assertThat(first).as("Same data must be stored once").isEqualTo(second);
+        assertThat(first.getName()).as("Unexpected name").endsWith(".html").hasSize(64 + ".html".length());
+        assertThat(other.getName()).as("Unexpected name").endsWith(".png");
+        assertThat(dir.list()).as("Unexpected stored files").hasSize(2);
+        assertThat(Files.readAllBytes(first.toPath())).as("Unexpected content").isEqualTo(
+                "<html/>".getBytes(StandardCharsets.UTF_8));
+    }
+}
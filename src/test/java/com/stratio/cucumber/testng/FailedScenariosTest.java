@@ -0,0 +1,29 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.testng.annotations.Test;
+
+public class FailedScenariosTest {
+
+    @Test
+    public void saveTest() throws Exception {
+        File file = new File(Files.createTempDirectory("failed").toFile(), "FAILED.txt");
+        FailedScenarios first = new FailedScenarios(file);
+        first.record("features/a.feature:3");
+        first.record("features/b.feature:12");
+        first.record("features/a.feature:3");
+        first.save();
+
+        assertThat(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)).as("Unexpected failures file")
+                .containsExactly("features/a.feature:3", "features/b.feature:12");
+
+        new FailedScenarios(file).save();
+        assertThat(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)).as("Fixed scenarios must be dropped")
+                .isEmpty();
+    }
+}
@@ -0,0 +1,39 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.stratio.cucumber.testng.IgnoreTags.Reason;
+
+import gherkin.formatter.model.Tag;
+
+public class IgnoreTagsTest {
+
+    private List<Tag> tags(String... names) {
+        List<Tag> tags = new ArrayList<Tag>();
+        for (String name : names) {
+            tags.add(new Tag(name, 1));
+        }
+        return tags;
+    }
+
+    @Test
+    public void classifyTest() {
+        assertThat(IgnoreTags.of(tags("@web", "@manual")).isIgnored()).as("Scenarios without @ignore are not ignored")
+                .isFalse();
+
+        IgnoreTags tillFixed = IgnoreTags.of(tags("@toocomplex", "@ignore", "@tillfixed(QA-123)"));
+        assertThat(tillFixed.isIgnored()).as("Unexpected classification").isTrue();
+        assertThat(tillFixed.getReason()).as("Unexpected first reason").isEqualTo(Reason.TILL_FIXED);
+        assertThat(tillFixed.getReasons()).as("Unexpected reasons").containsExactly(Reason.TILL_FIXED, Reason.TOO_COMPLEX);
+        assertThat(tillFixed.getIssue()).as("Unexpected issue").isEqualTo("QA-123");
+
+        IgnoreTags wrong = IgnoreTags.of(tags("@ignore", "@tillfixed(nothing)"));
+        assertThat(wrong.isIgnored()).as("Unexpected classification").isTrue();
+        assertThat(wrong.getReason()).as("Malformed reasons must not count").isNull();
+    }
+}
@@ -0,0 +1,32 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.testng.annotations.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentilesTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 1000; ms++) {
+            histogram.record(ms * 1000000L);
+        }
+
+        assertThat(histogram.getCount()).as("Unexpected count").isEqualTo(1000);
+        assertThat(histogram.getMinMs()).as("Unexpected min").isEqualTo(1.0);
+        assertThat(histogram.getMaxMs()).as("Unexpected max").isEqualTo(1000.0);
+        assertThat(histogram.getMeanMs()).as("Unexpected mean").isEqualTo(500.5);
+        assertThat(histogram.getPercentileMs(0.50)).as("Unexpected p50").isCloseTo(500.0, within(500.0 * 0.07));
+        assertThat(histogram.getPercentileMs(0.95)).as("Unexpected p95").isCloseTo(950.0, within(950.0 * 0.07));
+        assertThat(histogram.getPercentileMs(0.99)).as("Unexpected p99").isCloseTo(990.0, within(990.0 * 0.07));
+    }
+
+    @Test
+    public void emptyTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getPercentileMs(0.99)).as("Unexpected p99").isEqualTo(0.0);
+        assertThat(histogram.getMinMs()).as("Unexpected min").isEqualTo(0.0);
+    }
+}
@@ -0,0 +1,188 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.testng.annotations.Test;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.stratio.cucumber.aspects.ReplacementAspect;
+
+import cucumber.api.CucumberOptions;
+import cucumber.runtime.RuntimeOptions;
+import cucumber.runtime.RuntimeOptionsFactory;
+import cucumber.runtime.io.MultiLoader;
+import cucumber.runtime.io.ResourceLoader;
+import cucumber.runtime.io.ResourceLoaderClassFinder;
+import gherkin.formatter.Formatter;
+import gherkin.formatter.model.Background;
+import gherkin.formatter.model.Examples;
+import gherkin.formatter.model.Feature;
+import gherkin.formatter.model.Scenario;
+import gherkin.formatter.model.ScenarioOutline;
+import gherkin.formatter.model.Step;
+
+public class ParallelRuntimeTest {
+
+    @CucumberOptions(features = "classpath:features/parallel")
+    public static class ParallelFeatures {
+    }
+
+    @CucumberOptions(features = "classpath:features/replacement", glue = "classpath:com/stratio/cucumber/testng/glue")
+    public static class ReplacementFeatures {
+    }
+
+    /**
+     * Resolves the placeholders of every step replayed, as the woven
+     * CucumberReporter does.
+     */
+    public static class ReplacingFormatter extends ReplacementAspect implements Formatter {
+
+        private final List<String> steps = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public void step(Step step) {
+            try {
+                steps.add(modifyStep(step).getName());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void syntaxError(String state, String event, List<String> legalEvents, String uri, Integer line) {
+        }
+
+        @Override
+        public void uri(String uri) {
+        }
+
+        @Override
+        public void feature(Feature feature) {
+        }
+
+        @Override
+        public void scenarioOutline(ScenarioOutline scenarioOutline) {
+        }
+
+        @Override
+        public void examples(Examples examples) {
+        }
+
+        @Override
+        public void startOfScenarioLifeCycle(Scenario scenario) {
+        }
+
+        @Override
+        public void background(Background background) {
+        }
+
+        @Override
+        public void scenario(Scenario scenario) {
+        }
+
+        @Override
+        public void endOfScenarioLifeCycle(Scenario scenario) {
+        }
+
+        @Override
+        public void done() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void eof() {
+        }
+    }
+
+    private List<String> testMethods(File report) throws Exception {
+        NodeList nodes = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(report)
+                .getElementsByTagName("test-method");
+        List<String> methods = new ArrayList<String>();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Element method = (Element) nodes.item(i);
+            methods.add(method.getAttribute("name") + ":" + method.getAttribute("status"));
+        }
+        return methods;
+    }
+
+    @Test
+    public void sequentialRunTest() throws Exception {
+        System.setProperty(CucumberRunner.GLUE, "com.stratio.cucumber.testng.glue");
+        try {
+            new CucumberRunner(ParallelFeatures.class).runCukes();
+        } finally {
+            System.clearProperty(CucumberRunner.GLUE);
+        }
+
+        assertThat(testMethods(new File("target/executions/" + ParallelFeatures.class.getCanonicalName()
+                + "TESTNG.xml"))).as("Unexpected reported scenarios").containsExactly("slow first:PASS",
+                "outline [one, 100]:PASS", "outline [two, 0]:PASS", "fast failing:FAIL", "undefined:SKIP");
+    }
+
+    @Test
+    public void parallelRunTest() throws Exception {
+        PrintStream out = System.out;
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        System.setProperty(CucumberRunner.THREADS, "2");
+        System.setProperty(CucumberRunner.GLUE, "com.stratio.cucumber.testng.glue");
+        try {
+            System.setOut(new PrintStream(summary, true, "UTF-8"));
+            new CucumberRunner(ParallelFeatures.class).runCukes();
+        } finally {
+            System.setOut(out);
+            System.clearProperty(CucumberRunner.THREADS);
+            System.clearProperty(CucumberRunner.GLUE);
+        }
+
+        String reportName = "target/executions/" + ParallelFeatures.class.getCanonicalName();
+        assertThat(testMethods(new File(reportName + "TESTNG.xml"))).as("Unexpected reported scenarios")
+                .containsExactly("slow first:PASS", "outline [one, 100]:PASS", "outline [two, 0]:PASS",
+                        "fast failing:FAIL", "undefined:SKIP");
+        Element junit = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new File(reportName + "JUNIT.xml")).getDocumentElement();
+        assertThat(((Element) junit.getElementsByTagName("testsuite").item(0)).getAttribute("tests"))
+                .as("Unexpected JUNIT total").isEqualTo("5");
+        assertThat(summary.toString("UTF-8")).as("Unexpected summary")
+                .contains("5 Scenarios (1 failed, 1 undefined, 3 passed)")
+                .contains("9 Steps (1 failed, 1 undefined, 7 passed)")
+                .contains("You can implement missing steps with the snippets below:")
+                .contains("a step nobody implemented");
+    }
+
+    @Test
+    public void savedAttributesReplayedTest() throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+        ResourceLoader resourceLoader = new MultiLoader(classLoader);
+        RuntimeOptions runtimeOptions = new RuntimeOptionsFactory(ReplacementFeatures.class,
+                new Class[] { CucumberOptions.class }).create();
+        ReplacingFormatter formatter = new ReplacingFormatter();
+        runtimeOptions.addFormatter(formatter);
+
+        PrintStream out = System.out;
+        try {
+            System.setOut(new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+            new ParallelRuntime(resourceLoader, new ResourceLoaderClassFinder(resourceLoader, classLoader),
+                    classLoader, runtimeOptions, 2).run(ScenarioTask.fromFeatures(runtimeOptions
+                    .cucumberFeatures(resourceLoader)));
+        } finally {
+            System.setOut(out);
+        }
+
+        assertThat(formatter.steps).as("Attributes saved by a worker must resolve when replayed").containsExactly(
+                "I save 'one' in thread property 'PARALLEL_FIRST'", "I use 'one'",
+                "I save 'two' in thread property 'PARALLEL_SECOND'", "I use 'two'");
+    }
+}
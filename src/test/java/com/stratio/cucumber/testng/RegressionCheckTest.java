@@ -0,0 +1,48 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import com.stratio.cucumber.testng.RegressionCheck.Regression;
+import com.stratio.cucumber.testng.RunHistory.Stats;
+
+public class RegressionCheckTest {
+
+    private JSONObject run(double offset, double... durations) {
+        Stats stable = new Stats();
+        Stats changing = new Stats();
+        for (double duration : durations) {
+            stable.add(duration);
+            changing.add(duration + offset);
+        }
+        JSONObject steps = new JSONObject();
+        steps.put("^a stable step$", stable.toJSON());
+        steps.put("^a changing step$", changing.toJSON());
+        JSONObject run = new JSONObject();
+        run.put("steps", steps);
+        return run;
+    }
+
+    @Test
+    public void slowdownTest() {
+        List<JSONObject> runs = new ArrayList<JSONObject>();
+        for (int i = 0; i < 5; i++) {
+            runs.add(run(0, 10, 11, 12, 9, 10));
+        }
+        assertThat(RegressionCheck.check(runs, 10, 3, 0.1)).as("Same durations must not be flagged").isEmpty();
+
+        runs.add(run(1, 10, 11, 12, 9, 10));
+        assertThat(RegressionCheck.check(runs, 10, 3, 0.1)).as("Noise must not be flagged").isEmpty();
+
+        runs.add(run(10, 10, 11, 12, 9, 10));
+        List<Regression> regressions = RegressionCheck.check(runs, 10, 3, 0.1);
+        assertThat(regressions).as("Unexpected regressions").hasSize(1);
+        assertThat(regressions.get(0).getPattern()).as("Unexpected pattern").isEqualTo("^a changing step$");
+        assertThat(regressions.get(0).getLatestMs()).as("Unexpected latest mean").isEqualTo(20.4);
+    }
+}
@@ -0,0 +1,64 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+public class ReportMergerTest {
+
+    private File write(File dir, String name, String content) throws IOException {
+        File f = new File(dir, name);
+        Files.write(f.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return f;
+    }
+
+    private String testng(String method, String status) {
+        return "<testng-results total=\"1\" passed=\"" + ("PASS".equals(status) ? 1 : 0) + "\" failed=\""
+                + ("FAIL".equals(status) ? 1 : 0) + "\" skipped=\"0\"><suite name=\"s\" duration-ms=\"10.0\">"
+                + "<test name=\"t\" duration-ms=\"10.0\"><class name=\"Runner\"><test-method name=\"" + method
+                + "\" status=\"" + status + "\"/></class></test></suite></testng-results>";
+    }
+
+    private String junit(String method) {
+        return "<testsuites><testsuite name=\"Runner.f\" tests=\"1\" failures=\"0\" skipped=\"0\" time=\"0.5\">"
+                + "<testcase name=\"" + method + "\"/></testsuite></testsuites>";
+    }
+
+    @Test
+    public void mergeShardReportsTest() throws Exception {
+        File dir = Files.createTempDirectory("merge").toFile();
+        write(dir, "Runner-shard0of2TESTNG.xml", testng("a", "PASS"));
+        write(dir, "Runner-shard1of2TESTNG.xml", testng("b", "FAIL"));
+        write(dir, "Runner-shard0of2JUNIT.xml", junit("a"));
+        write(dir, "Runner-shard1of2JUNIT.xml", junit("b"));
+
+        List<File> merged = ReportMerger.merge(dir);
+        assertThat(merged).as("Unexpected merged reports").hasSize(2);
+
+        Document testng = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new File(dir, "RunnerTESTNG.xml"));
+        Element results = testng.getDocumentElement();
+        assertThat(results.getAttribute("total")).as("Unexpected total").isEqualTo("2");
+        assertThat(results.getAttribute("passed")).as("Unexpected passed").isEqualTo("1");
+        assertThat(results.getAttribute("failed")).as("Unexpected failed").isEqualTo("1");
+        assertThat(testng.getElementsByTagName("test-method").getLength()).as("Unexpected test methods")
+                .isEqualTo(2);
+
+        Document junit = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new File(dir, "RunnerJUNIT.xml"));
+        Element suite = (Element) junit.getElementsByTagName("testsuite").item(0);
+        assertThat(suite.getAttribute("tests")).as("Unexpected tests").isEqualTo("2");
+        assertThat(suite.getAttribute("time")).as("Unexpected time").isEqualTo("1.0");
+        assertThat(junit.getElementsByTagName("testcase").getLength()).as("Unexpected test cases").isEqualTo(2);
+    }
+}
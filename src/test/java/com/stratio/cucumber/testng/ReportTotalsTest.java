@@ -0,0 +1,23 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.annotations.Test;
+
+public class ReportTotalsTest {
+
+    @Test
+    public void addTest() {
+        ReportTotals totals = new ReportTotals();
+        totals.add("PASS", 1.5);
+        totals.add("FAIL", 2);
+        totals.add("SKIP", 0);
+        totals.add("PASS", 0.5);
+
+        assertThat(totals.getTotal()).as("Unexpected total").isEqualTo(4);
+        assertThat(totals.getPassed()).as("Unexpected passed").isEqualTo(2);
+        assertThat(totals.getFailed()).as("Unexpected failed").isEqualTo(1);
+        assertThat(totals.getSkipped()).as("Unexpected skipped").isEqualTo(1);
+        assertThat(totals.getDurationMs()).as("Unexpected duration").isEqualTo(4.0);
+    }
+}
@@ -0,0 +1,130 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import cucumber.runtime.io.MultiLoader;
+import cucumber.runtime.model.CucumberFeature;
+
+public class ReportWindowTest {
+
+    private List<ScenarioTask> tasks(int features, int scenarios) throws Exception {
+        File dir = Files.createTempDirectory("features").toFile();
+        for (int f = 0; f < features; f++) {
+            StringBuilder sb = new StringBuilder("Feature: feature " + f + "\n\n");
+            for (int s = 0; s < scenarios; s++) {
+                sb.append("  Scenario: scenario ").append(s).append("\n    Given a step\n\n");
+            }
+            Files.write(new File(dir, "f" + f + ".feature").toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        List<String> paths = new ArrayList<String>();
+        paths.add(dir.getPath());
+        return ScenarioTask.fromFeatures(CucumberFeature.load(new MultiLoader(getClass().getClassLoader()), paths,
+                new ArrayList<Object>()));
+    }
+
+    private List<String> released(List<Map.Entry<ScenarioTask, String>> entries) {
+        List<String> names = new ArrayList<String>();
+        for (Map.Entry<ScenarioTask, String> entry : entries) {
+            names.add(entry.getValue());
+        }
+        return names;
+    }
+
+    private String name(ScenarioTask task) {
+        return task.getFeature().getGherkinFeature().getName() + "/" + task.getName();
+    }
+
+    @Test
+    public void inOrderTest() throws Exception {
+        List<ScenarioTask> tasks = tasks(1, 3);
+        ReportWindow<String> window = new ReportWindow<String>(tasks, 16);
+
+        assertThat(window.add(tasks.get(0), "0")).as("The first scenario must be released as it completes")
+                .hasSize(1);
+        assertThat(window.add(tasks.get(2), "2")).as("A scenario must wait for the ones before it").isEmpty();
+        assertThat(window.waiting()).as("Unexpected waiting scenarios").isEqualTo(1);
+        assertThat(released(window.add(tasks.get(1), "1"))).as("Waiting scenarios must follow the one completed")
+                .containsExactly("1", "2");
+        assertThat(window.waiting()).as("Unexpected waiting scenarios").isEqualTo(0);
+    }
+
+    @Test
+    public void featuresAreIndependentTest() throws Exception {
+        List<ScenarioTask> tasks = tasks(2, 2);
+        ReportWindow<String> window = new ReportWindow<String>(tasks, 16);
+
+        assertThat(window.add(tasks.get(1), "f0/1")).as("A scenario must wait for the ones before it").isEmpty();
+        assertThat(released(window.add(tasks.get(2), "f1/0")))
+                .as("A scenario must not wait for the ones of other features").containsExactly("f1/0");
+    }
+
+    @Test
+    public void boundedTest() throws Exception {
+        List<ScenarioTask> tasks = tasks(3, 10);
+        List<ScenarioTask> completion = new ArrayList<ScenarioTask>(tasks);
+        // the first scenario of every feature is the last one to complete
+        for (int f = 2; f >= 0; f--) {
+            completion.add(completion.remove(f * 10));
+        }
+        ReportWindow<String> window = new ReportWindow<String>(tasks, 4);
+
+        List<String> reported = new ArrayList<String>();
+        int maxWaiting = 0;
+        for (ScenarioTask task : completion) {
+            reported.addAll(released(window.add(task, name(task))));
+            maxWaiting = Math.max(maxWaiting, window.waiting());
+        }
+
+        assertThat(maxWaiting).as("The window must bound the scenarios held").isLessThanOrEqualTo(4);
+        assertThat(window.waiting()).as("Every scenario must be released").isEqualTo(0);
+        assertThat(reported).as("Every scenario must be reported once").hasSize(tasks.size())
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void reorderedWithinWindowTest() throws Exception {
+        List<ScenarioTask> tasks = tasks(2, 5);
+        List<ScenarioTask> completion = new ArrayList<ScenarioTask>(tasks);
+        Collections.shuffle(completion, new Random(1));
+        ReportWindow<String> window = new ReportWindow<String>(tasks, tasks.size());
+
+        List<String> reported = new ArrayList<String>();
+        for (ScenarioTask task : completion) {
+            reported.addAll(released(window.add(task, name(task))));
+        }
+
+        for (String feature : new String[] { "feature 0", "feature 1" }) {
+            List<String> lines = new ArrayList<String>();
+            for (String name : reported) {
+                if (name.startsWith(feature + "/")) {
+                    lines.add(name);
+                }
+            }
+            assertThat(lines).as("Scenarios of " + feature + " must be reported by line").containsExactly(
+                    feature + "/scenario 0", feature + "/scenario 1", feature + "/scenario 2",
+                    feature + "/scenario 3", feature + "/scenario 4");
+        }
+    }
+
+    @Test
+    public void completionOrderTest() throws Exception {
+        List<ScenarioTask> tasks = tasks(1, 3);
+        ReportWindow<String> window = new ReportWindow<String>(tasks, 0);
+
+        assertThat(released(window.add(tasks.get(2), "2"))).as("Without a window scenarios must not wait")
+                .containsExactly("2");
+        assertThat(released(window.add(tasks.get(0), "0"))).containsExactly("0");
+        assertThat(released(window.add(tasks.get(1), "1"))).containsExactly("1");
+    }
+}
@@ -0,0 +1,121 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+import javax.management.ObjectName;
+
+import org.json.JSONArray;
+import org.testng.annotations.Test;
+
+import gherkin.formatter.model.Comment;
+import gherkin.formatter.model.Result;
+import gherkin.formatter.model.Scenario;
+import gherkin.formatter.model.Tag;
+
+public class RunProgressTest {
+
+    private static final List<Comment> NO_COMMENTS = Collections.emptyList();
+    private static final List<Tag> NO_TAGS = Collections.emptyList();
+
+    private void scenario(RunProgress progress, String name, String status) {
+        Scenario scenario = new Scenario(NO_COMMENTS, NO_TAGS, "Scenario", name, "", 1, name);
+        progress.startOfScenarioLifeCycle(scenario);
+        assertThat(progress.getCurrentSteps()).as("Unexpected current steps").containsExactly(
+                Thread.currentThread().getName() + ": " + name);
+        progress.result(new Result(status, 1L, null, null));
+        progress.endOfScenarioLifeCycle(scenario);
+    }
+
+    private int freePort() throws IOException {
+        ServerSocket socket = new ServerSocket(0);
+        try {
+            return socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+    }
+
+    private JSONArray get(int port) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/progress")
+                .openConnection();
+        InputStream in = connection.getInputStream();
+        try {
+            return new JSONArray(new Scanner(in, "UTF-8").useDelimiter("\\A").next());
+        } finally {
+            in.close();
+        }
+    }
+
+    @Test
+    public void countersTest() throws Exception {
+        RunProgress progress = new RunProgress("counters");
+        progress.start(4, 8000, 2);
+        try {
+            assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(
+                    new ObjectName("com.stratio.cucumber:type=RunProgress,name=" + ObjectName.quote("counters"))))
+                    .as("MBean not registered").isTrue();
+            assertThat(progress.getEtaSeconds()).as("Unexpected ETA from the history").isEqualTo(4);
+
+            scenario(progress, "passing", Result.PASSED);
+            scenario(progress, "failing", Result.FAILED);
+
+            assertThat(progress.getDone()).as("Unexpected done").isEqualTo(2);
+            assertThat(progress.getFailed()).as("Unexpected failed").isEqualTo(1);
+            assertThat(progress.getEtaSeconds()).as("Unexpected ETA").isEqualTo(2);
+            assertThat(progress.getCurrentSteps()).as("Unexpected current steps").isEmpty();
+        } finally {
+            progress.stop();
+        }
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(
+                new ObjectName("com.stratio.cucumber:type=RunProgress,name=" + ObjectName.quote("counters"))))
+                .as("MBean not unregistered").isFalse();
+    }
+
+    @Test
+    public void sharedServerTest() throws Exception {
+        int port = freePort();
+        RunProgress first = new RunProgress("first");
+        RunProgress second = new RunProgress("second");
+        System.setProperty(RunProgress.PORT, String.valueOf(port));
+        try {
+            first.start(1, 0, 1);
+            second.start(2, 0, 1);
+            scenario(second, "passing", Result.PASSED);
+
+            JSONArray runs = get(port);
+            List<String> names = new ArrayList<String>();
+            for (int i = 0; i < runs.length(); i++) {
+                names.add(runs.getJSONObject(i).getString("name"));
+            }
+            assertThat(names).as("Every run must be published on the same port").containsExactly("first",
+                    "second");
+            assertThat(runs.getJSONObject(1).getInt("done")).as("Unexpected done").isEqualTo(1);
+
+            first.stop();
+            assertThat(get(port).length()).as("A stopped run must not be published").isEqualTo(1);
+        } finally {
+            System.clearProperty(RunProgress.PORT);
+            first.stop();
+            second.stop();
+        }
+
+        try {
+            get(port);
+            throw new AssertionError("The server must be stopped with the last run");
+        } catch (ConnectException e) {
+            // expected
+        }
+    }
+}
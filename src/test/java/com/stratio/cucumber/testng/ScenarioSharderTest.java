@@ -0,0 +1,104 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import cucumber.runtime.io.MultiLoader;
+import cucumber.runtime.model.CucumberFeature;
+
+public class ScenarioSharderTest {
+
+    private static final int SHARDS = 4;
+
+    private List<ScenarioTask> tasks(File dir, int features, int scenarios, String extra) throws Exception {
+        for (int f = 0; f < features; f++) {
+            StringBuilder sb = new StringBuilder("Feature: feature " + f + "\n\n");
+            if (f == 0 && extra != null) {
+                sb.append("  Scenario: ").append(extra).append("\n    Given a step\n\n");
+            }
+            for (int s = 0; s < scenarios; s++) {
+                sb.append("  Scenario: scenario ").append(s).append("\n    Given a step\n\n");
+            }
+            sb.append("  Scenario Outline: outline\n    Given a <value>\n\n    Examples:\n      | value |\n");
+            sb.append("      | 1 |\n      | 2 |\n      | 3 |\n");
+            Files.write(new File(dir, "f" + f + ".feature").toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        List<String> paths = new ArrayList<String>();
+        paths.add(dir.getPath());
+        return ScenarioTask.fromFeatures(CucumberFeature.load(new MultiLoader(getClass().getClassLoader()), paths,
+                new ArrayList<Object>()));
+    }
+
+    private Map<String, Integer> assignment(List<ScenarioTask> tasks) {
+        Map<String, Integer> shards = new HashMap<String, Integer>();
+        for (int i = 0; i < SHARDS; i++) {
+            for (ScenarioTask task : new ScenarioSharder(i, SHARDS).select(tasks)) {
+                assertThat(shards.put(task.getPath() + ":" + task.getName(), i)).as("Shards must be disjoint")
+                        .isNull();
+            }
+        }
+        return shards;
+    }
+
+    @Test
+    public void balancedAndCompleteTest() throws Exception {
+        List<ScenarioTask> tasks = tasks(Files.createTempDirectory("features").toFile(), 10, 20, null);
+        int total = 0;
+        for (ScenarioTask task : tasks) {
+            total += task.getScenarioCount();
+        }
+
+        Set<ScenarioTask> covered = new HashSet<ScenarioTask>();
+        for (int i = 0; i < SHARDS; i++) {
+            List<ScenarioTask> shard = new ScenarioSharder(i, SHARDS).select(tasks);
+            int load = 0;
+            for (ScenarioTask task : shard) {
+                load += task.getScenarioCount();
+                assertThat(covered.add(task)).as("Shards must be disjoint").isTrue();
+            }
+            assertThat(load).as("Unbalanced shard " + i).isBetween(total / SHARDS - total / 10,
+                    (int) Math.ceil(total * 1.1 / SHARDS));
+            List<ScenarioTask> ordered = new ArrayList<ScenarioTask>(tasks);
+            ordered.retainAll(shard);
+            assertThat(shard).as("Original order must be kept").isEqualTo(ordered);
+        }
+        assertThat(covered).as("Every scenario must be run by a shard").containsOnlyElementsOf(tasks)
+                .hasSize(tasks.size());
+    }
+
+    @Test
+    public void stableAssignmentTest() throws Exception {
+        List<ScenarioTask> tasks = tasks(Files.createTempDirectory("features").toFile(), 10, 20, null);
+        Map<String, Integer> before = assignment(tasks);
+
+        List<ScenarioTask> shuffled = new ArrayList<ScenarioTask>(tasks);
+        Collections.shuffle(shuffled, new Random(1));
+        assertThat(assignment(shuffled)).as("Order must not change the assignment").isEqualTo(before);
+
+        // a new scenario on top of the first feature shifts the lines of the others
+        Map<String, Integer> after = assignment(tasks(Files.createTempDirectory("features").toFile(), 10, 20,
+                "new scenario"));
+        int moved = 0;
+        for (Map.Entry<String, Integer> entry : before.entrySet()) {
+            if (!entry.getValue().equals(after.get(entry.getKey()))) {
+                moved++;
+            }
+        }
+        assertThat(after).as("The new scenario must be assigned").hasSize(before.size() + 1);
+        assertThat(moved).as("Adding a scenario must keep the others where they were")
+                .isLessThanOrEqualTo(before.size() / 10);
+    }
+}
@@ -0,0 +1,75 @@
+package com.stratio.cucumber.testng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import cucumber.runtime.StepDefinition;
+import cucumber.runtime.StepDefinitionMatch;
+import gherkin.formatter.model.Comment;
+import gherkin.formatter.model.Match;
+import gherkin.formatter.model.Result;
+import gherkin.formatter.model.Scenario;
+import gherkin.formatter.model.Step;
+import gherkin.formatter.model.Tag;
+
+public class SlowestFormatterTest {
+
+    private void scenario(SlowestFormatter formatter, String name, int line, long hookNanos, long... stepNanos) {
+        Scenario scenario = new Scenario(Collections.<Comment> emptyList(), Collections.<Tag> emptyList(), "Scenario",
+                name, "", line, "id");
+        formatter.startOfScenarioLifeCycle(scenario);
+        formatter.before(new Match(null, "Hooks.setup()"), new Result(Result.PASSED, hookNanos, null));
+        for (int i = 0; i < stepNanos.length; i++) {
+            Step step = new Step(Collections.<Comment> emptyList(), "Given ", name + " step " + i, line + i + 1, null,
+                    null);
+            formatter.match(new StepDefinitionMatch(null, mock(StepDefinition.class), "a.feature", step,
+                    null));
+            formatter.result(new Result(Result.PASSED, stepNanos[i], null));
+        }
+        formatter.endOfScenarioLifeCycle(scenario);
+    }
+
+    @Test
+    public void topTest() throws Exception {
+        File file = new File(Files.createTempDirectory("slowest").toFile(), "SLOWEST.json");
+        System.setProperty(SlowestFormatter.TOP, "2");
+        SlowestFormatter formatter;
+        try {
+            formatter = new SlowestFormatter(file);
+        } finally {
+            System.clearProperty(SlowestFormatter.TOP);
+        }
+        formatter.uri("features/a.feature");
+        scenario(formatter, "fast", 3, 1000000L, 1000000L);
+        scenario(formatter, "slow", 10, 1000000L, 5000000L, 4000000L);
+        scenario(formatter, "medium", 20, 3000000L, 2000000L);
+        formatter.done();
+
+        JSONObject json = new JSONObject(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        JSONArray scenarios = json.getJSONArray("scenarios");
+        assertThat(scenarios.length()).as("Unexpected number of scenarios").isEqualTo(2);
+        assertThat(scenarios.getJSONObject(0).getString("name")).as("Unexpected slowest scenario").isEqualTo("slow");
+        assertThat(scenarios.getJSONObject(0).getString("location")).as("Unexpected location").isEqualTo(
+                "features/a.feature:10");
+        assertThat(scenarios.getJSONObject(0).getDouble("durationMs")).as("Hooks must be added up").isEqualTo(10.0);
+        assertThat(scenarios.getJSONObject(1).getString("name")).as("Unexpected scenario").isEqualTo("medium");
+
+        JSONArray steps = json.getJSONArray("steps");
+        assertThat(steps.getJSONObject(0).getString("name")).as("Unexpected slowest step").isEqualTo("slow step 0");
+        assertThat(steps.getJSONObject(1).getString("name")).as("Unexpected step").isEqualTo("slow step 1");
+
+        JSONArray hooks = json.getJSONArray("hooks");
+        assertThat(hooks.getJSONObject(0).getString("name")).as("Unexpected slowest hook").isEqualTo("Hooks.setup()");
+        assertThat(hooks.getJSONObject(0).getString("location")).as("Unexpected hook scenario").isEqualTo(
+                "features/a.feature:20");
+    }
+}
@@ -0,0 +1,35 @@
+package com.stratio.cucumber.testng.glue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.stratio.tests.utils.ThreadProperty;
+
+import cucumber.api.java.en.Given;
+import cucumber.api.java.en.Then;
+
+public class ParallelSteps {
+
+    @Given("^I wait (\\d+) ms$")
+    public void waitMs(int ms) throws InterruptedException {
+        Thread.sleep(ms);
+    }
+
+    @Then("^the data set is '(.*?)'$")
+    public void dataSet(String expected) {
+        assertThat(ThreadProperty.get("dataSet")).as("Unexpected data set").isEqualTo(expected);
+    }
+
+    @Given("^I save '(.*?)' in thread property '(.*?)'$")
+    public void save(String value, String key) {
+        ThreadProperty.set(key, value);
+    }
+
+    @Then("^I use '(.*?)'$")
+    public void use(String value) {
+    }
+
+    @Then("^it fails$")
+    public void fails() {
+        assertThat(false).as("Failing on purpose").isTrue();
+    }
+}
@@ -0,0 +1,68 @@
+package com.stratio.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.jsoup.Jsoup;
+import org.testng.annotations.Test;
+
+public class BrowsersDataProviderTest {
+
+    @Test
+    public void parseProxyBrowsersTest() {
+        // /grid/api/proxy?id=http://10.0.0.5:5555 of a selenium 2.49 hub
+        String proxy = "{\"id\": \"http://10.0.0.5:5555\", \"request\": {"
+                + "\"class\": \"org.openqa.grid.common.RegistrationRequest\", \"capabilities\": ["
+                + "{\"seleniumProtocol\": \"WebDriver\", \"browserName\": \"chrome\", \"maxInstances\": 2,"
+                + " \"version\": \"48\", \"platform\": \"LINUX\"},"
+                + "{\"seleniumProtocol\": \"WebDriver\", \"browserName\": \"firefox\", \"maxInstances\": 1,"
+                + " \"platform\": \"LINUX\"}],"
+                + " \"configuration\": {\"port\": 5555, \"register\": true, \"maxSession\": 5}},"
+                + " \"msg\": \"proxy found !\", \"success\": true}";
+
+        assertThat(BrowsersDataProvider.parseProxyBrowsers(proxy)).as("Unexpected browsers").containsExactly(
+                "chrome_48", "chrome_48", "firefox_null");
+    }
+
+    @Test
+    public void parseUnknownProxyTest() {
+        assertThat(BrowsersDataProvider.parseProxyBrowsers(
+                "{\"msg\": \"Cannot find proxy with ID =http://10.0.0.6:5555 in the registry.\", \"success\": false}"))
+                .as("An unknown node has no browsers").isEmpty();
+    }
+
+    @Test
+    public void parseHubWithoutNodesTest() {
+        // /grid/api/hub of a selenium 2.49 hub
+        String hub = "{\"success\": true, \"port\": 4444, \"host\": \"10.0.0.1\", \"role\": \"hub\","
+                + " \"newSessionWaitTimeout\": -1, \"throwOnCapabilityNotPresent\": true,"
+                + " \"cleanUpCycle\": 5000, \"timeout\": 300000, \"browserTimeout\": 0}";
+
+        assertThat(BrowsersDataProvider.parseHubNodes(hub)).as("A hub not listing its nodes must fall back")
+                .isNull();
+    }
+
+    @Test
+    public void parseHubNodesTest() {
+        String hub = "{\"success\": true, \"slotCounts\": {\"free\": 3, \"total\": 3}, \"nodes\": ["
+                + "{\"id\": \"http://10.0.0.5:5555\", \"browsers\": []},"
+                + "{\"id\": \"http://10.0.0.6:5555\", \"browsers\": []}]}";
+
+        assertThat(BrowsersDataProvider.parseHubNodes(hub)).as("Unexpected nodes").containsExactly(
+                "http://10.0.0.5:5555", "http://10.0.0.6:5555");
+    }
+
+    @Test
+    public void consoleNodesTest() {
+        // /grid/console of a selenium 2.49 hub
+        String console = "<html><body><div id='left-column'>"
+                + "<div class='proxy'><p class='proxyname'>DefaultRemoteProxy (version : 2.49.1)</p>"
+                + "<p class='proxyid'>id : http://10.0.0.5:5555, OS : LINUX</p></div>"
+                + "<div class='proxy'><p class='proxyname'>DefaultRemoteProxy (version : 2.49.1)"
+                + " <span class='down'>Connection refused</span></p>"
+                + "<p class='proxyid'>id : http://10.0.0.6:5555, OS : LINUX</p></div>"
+                + "</div></body></html>";
+
+        assertThat(BrowsersDataProvider.consoleNodes(Jsoup.parse(console))).as("Unexpected nodes")
+                .containsExactly("http://10.0.0.5:5555");
+    }
+}
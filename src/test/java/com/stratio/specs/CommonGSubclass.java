@@ -0,0 +1,6 @@
+package com.stratio.specs;
+
+public class CommonGSubclass extends CommonG {
+
+    static String previousValue;
+}
@@ -362,4 +362,39 @@ public class CommonGTest {
 	    assertThat(e.getMessage()).as("Unexpected exception message").isEqualTo("Missing fields in request.");
 	}
     }
+
+    @Test
+    public void setPreviousElementTest() throws Exception {
+	ThreadProperty.set("class", this.getClass().getCanonicalName());
+	CommonG commong = new CommonG();
+
+	commong.setPreviousElement("previousValue", "value1");
+	assertThat(CommonGSubclass.previousValue).as("Unexpected saved value").isEqualTo("value1");
+	commong.setPreviousElement("previousValue", "value2");
+	assertThat(CommonGSubclass.previousValue).as("Unexpected saved value").isEqualTo("value2");
+    }
+
+    @Test
+    public void setPreviousElementNonExistentTest() throws Exception {
+	ThreadProperty.set("class", this.getClass().getCanonicalName());
+	CommonG commong = new CommonG();
+
+	try {
+	    commong.setPreviousElement("nonExistentValue", "value");
+	    fail("Expected NoSuchFieldException");
+	} catch (NoSuchFieldException e) {
+	    assertThat(e.getMessage()).as("Unexpected exception message").isEqualTo("nonExistentValue");
+	}
+    }
+
+    @Test
+    public void exceptionsAreScenarioScopedTest() throws Exception {
+	ThreadProperty.set("class", this.getClass().getCanonicalName());
+	CommonG first = new CommonG();
+	CommonG second = new CommonG();
+
+	first.getExceptions().add(new Exception("first"));
+	assertThat(first.getExceptions()).as("Unexpected exceptions").hasSize(1);
+	assertThat(second.getExceptions()).as("Exceptions leaked between scenarios").isEmpty();
+    }
 }
@@ -0,0 +1,108 @@
+package com.stratio.tests.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.Configuration;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.QueryOptions;
+import com.datastax.driver.core.Session;
+
+public class CassandraUtilsTest {
+
+    private Cluster cluster(Session session, boolean up) {
+        Cluster cluster = mock(Cluster.class);
+        Host host = mock(Host.class);
+        when(host.isUp()).thenReturn(up);
+        Metadata metadata = mock(Metadata.class);
+        when(metadata.getAllHosts()).thenReturn(Collections.singleton(host));
+        when(cluster.getMetadata()).thenReturn(metadata);
+        Configuration configuration = mock(Configuration.class);
+        when(configuration.getQueryOptions()).thenReturn(new QueryOptions());
+        when(cluster.getConfiguration()).thenReturn(configuration);
+        when(cluster.connect()).thenReturn(session);
+        return cluster;
+    }
+
+    @Test
+    public void reuseTest() {
+        Session session = mock(Session.class);
+        Cluster cluster = cluster(session, true);
+        CassandraUtils utils = spy(new CassandraUtils());
+        doReturn(cluster).when(utils).newCluster();
+
+        utils.connectIfNeeded();
+        utils.connectIfNeeded();
+
+        verify(utils, times(1)).newCluster();
+        verify(cluster, times(1)).connect();
+        verify(session, never()).close();
+        assertThat(utils.getSession()).as("Unexpected session").isSameAs(session);
+    }
+
+    @Test
+    public void keyspaceResetTest() {
+        Session used = mock(Session.class);
+        when(used.getLoggedKeyspace()).thenReturn("previous");
+        Session fresh = mock(Session.class);
+        Cluster cluster = cluster(used, true);
+        CassandraUtils utils = spy(new CassandraUtils());
+        doReturn(cluster).when(utils).newCluster();
+
+        utils.connectIfNeeded();
+        when(cluster.connect()).thenReturn(fresh);
+        utils.connectIfNeeded();
+
+        verify(utils, times(1)).newCluster();
+        verify(used).close();
+        verify(cluster, never()).close();
+        assertThat(utils.getSession()).as("The keyspace of a previous scenario must not be kept").isSameAs(fresh);
+    }
+
+    @Test
+    public void reconnectTest() {
+        Session lost = mock(Session.class);
+        Cluster down = cluster(lost, false);
+        Session session = mock(Session.class);
+        Cluster up = cluster(session, true);
+        CassandraUtils utils = spy(new CassandraUtils());
+        doReturn(down).doReturn(up).when(utils).newCluster();
+
+        utils.connectIfNeeded();
+        utils.connectIfNeeded();
+
+        verify(down).close();
+        assertThat(utils.getSession()).as("Unexpected session after reconnecting").isSameAs(session);
+    }
+
+    @Test
+    public void perThreadTest() throws Exception {
+        final List<CassandraUtils> other = new ArrayList<CassandraUtils>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                other.add(CassandraUtil.INSTANCE.getCassandraUtils());
+            }
+        });
+        thread.start();
+        thread.join();
+
+        CassandraUtils utils = CassandraUtil.INSTANCE.getCassandraUtils();
+        assertThat(CassandraUtil.INSTANCE.getCassandraUtils()).as("A thread must keep its utils").isSameAs(utils);
+        assertThat(other).as("Threads must not share utils").hasSize(1).doesNotContain(utils);
+    }
+}
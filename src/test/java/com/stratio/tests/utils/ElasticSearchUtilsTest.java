@@ -0,0 +1,53 @@
+package com.stratio.tests.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+public class ElasticSearchUtilsTest {
+
+    private TransportClient client(boolean connected) {
+        TransportClient client = mock(TransportClient.class);
+        when(client.connectedNodes()).thenReturn(connected ? ImmutableList.of(mock(DiscoveryNode.class))
+                : ImmutableList.<DiscoveryNode> of());
+        return client;
+    }
+
+    @Test
+    public void reuseTest() throws Exception {
+        TransportClient client = client(true);
+        ElasticSearchUtils utils = spy(new ElasticSearchUtils());
+        doReturn(client).when(utils).newClient();
+
+        utils.connectIfNeeded();
+        utils.connectIfNeeded();
+
+        verify(utils, times(1)).newClient();
+        verify(client, never()).close();
+        assertThat(utils.getClient()).as("Unexpected client").isSameAs(client);
+    }
+
+    @Test
+    public void reconnectTest() throws Exception {
+        TransportClient lost = client(false);
+        TransportClient client = client(true);
+        ElasticSearchUtils utils = spy(new ElasticSearchUtils());
+        doReturn(lost).doReturn(client).when(utils).newClient();
+
+        utils.connectIfNeeded();
+        utils.connectIfNeeded();
+
+        verify(lost).close();
+        assertThat(utils.getClient()).as("A client without nodes must be replaced").isSameAs(client);
+    }
+}
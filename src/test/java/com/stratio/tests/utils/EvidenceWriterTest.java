@@ -0,0 +1,65 @@
+package com.stratio.tests.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Scanner;
+
+import javax.imageio.ImageIO;
+
+import org.testng.annotations.Test;
+
+public class EvidenceWriterTest {
+
+    private byte[] png(int width, int height, Color color) throws Exception {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                img.setRGB(x, y, color.getRGB() - y);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void stitchTest() throws Exception {
+        BufferedImage img = EvidenceWriter.stitch(
+                Arrays.asList(png(4, 10, Color.WHITE), png(4, 10, Color.BLUE)), 6);
+
+        assertThat(img.getHeight()).as("Unexpected stitched height").isEqualTo(14);
+        assertThat(img.getRGB(0, 9)).as("Unexpected first capture").isEqualTo(Color.WHITE.getRGB() - 9);
+        assertThat(img.getRGB(0, 10)).as("Overlap of the last capture must be cut")
+                .isEqualTo(Color.BLUE.getRGB() - 6);
+    }
+
+    @Test
+    public void flushTest() throws Exception {
+        File dir = Files.createTempDirectory("executions").toFile();
+        File source = new File(dir, "class/chrome-1.html.gz");
+        File screenshot = new File(dir, "class/chrome-1.png");
+        File stitched = new File(dir, "class/chrome-2.png");
+        for (int i = 0; i < 10; i++) {
+            EvidenceWriter.INSTANCE.writeSource(new File(dir, "sources/" + i + ".html"), "<html/>");
+        }
+        EvidenceWriter.INSTANCE.writeSource(source, "<html/>");
+        EvidenceWriter.INSTANCE.writeScreenshot(screenshot, png(4, 10, Color.WHITE));
+        EvidenceWriter.INSTANCE.writeStitched(stitched, Arrays.asList(png(4, 10, Color.WHITE)), 0);
+
+        assertThat(EvidenceWriter.INSTANCE.flush()).as("Evidences must be written before the timeout").isTrue();
+        assertThat(new File(dir, "sources").list()).as("Unexpected written sources").hasSize(10);
+        InputStream in = ExecutionsOutput.read(source);
+        Scanner scanner = new Scanner(in, "UTF-8");
+        assertThat(scanner.nextLine()).as("Unexpected source").isEqualTo("<html/>");
+        scanner.close();
+        assertThat(ImageIO.read(screenshot).getHeight()).as("Unexpected screenshot").isEqualTo(10);
+        assertThat(ImageIO.read(stitched).getHeight()).as("Unexpected stitched screenshot").isEqualTo(10);
+    }
+}
@@ -5,6 +5,7 @@ import static org.hamcrest.Matchers.hasSize;
 
 import org.testng.annotations.Test;
 
+@SuppressWarnings("deprecation")
 public class ExceptionListTest {
 
     @Test
@@ -0,0 +1,72 @@
+package com.stratio.tests.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Scanner;
+
+import org.testng.annotations.Test;
+
+public class ExecutionsOutputTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private File file(File dir, String name, int size, long modified) throws Exception {
+        File f = new File(dir, name);
+        f.getParentFile().mkdirs();
+        Files.write(f.toPath(), new byte[size]);
+        f.setLastModified(modified);
+        return f;
+    }
+
+    @Test
+    public void gzipTest() throws Exception {
+        File file = new File(Files.createTempDirectory("executions").toFile(), "TESTNG.xml.gz");
+        OutputStream out = ExecutionsOutput.open(file);
+        out.write("<testng-results/>".getBytes(StandardCharsets.UTF_8));
+        out.close();
+
+        InputStream in = ExecutionsOutput.read(file);
+        Scanner scanner = new Scanner(in, "UTF-8");
+        assertThat(scanner.nextLine()).as("Unexpected content").isEqualTo("<testng-results/>");
+        scanner.close();
+    }
+
+    @Test
+    public void rotateTest() throws Exception {
+        File dir = Files.createTempDirectory("executions").toFile();
+        long now = System.currentTimeMillis();
+        File expired = file(dir, "a/old.png", 100, now - 40 * DAY);
+        File oldest = file(dir, "a/older.html", 300, now - 10 * DAY);
+        File old = file(dir, "b/old.html", 300, now - 5 * DAY);
+        File current = file(dir, "TESTNG.xml", 300, now);
+
+        assertThat(ExecutionsOutput.rotate(dir, now, 700, 30 * DAY, now)).as("Unexpected deleted files")
+                .containsExactly(expired, oldest);
+        assertThat(old.exists()).as("Files within budget must be kept").isTrue();
+
+        assertThat(ExecutionsOutput.rotate(dir, now, 0, -1, now)).as("Unexpected deleted files").containsExactly(old);
+        assertThat(current.exists()).as("Files of the current run must be kept").isTrue();
+    }
+
+    @Test
+    public void runStateKeptTest() throws Exception {
+        File dir = Files.createTempDirectory("executions").toFile();
+        long now = System.currentTimeMillis();
+        File report = file(dir, "other.ClassTESTNG.xml", 100, now - 40 * DAY);
+        File durations = file(dir, "other.ClassDURATIONS.properties", 100, now - 40 * DAY);
+        File failed = file(dir, "other.ClassFAILED.txt", 100, now - 40 * DAY);
+        File steps = file(dir, "other.ClassSTEPS.json", 100, now - 40 * DAY);
+        File part = file(dir, "other.ClassTESTNG.xml.0.part", 100, now - 40 * DAY);
+
+        assertThat(ExecutionsOutput.rotate(dir, now, 0, 30 * DAY, now)).as("Unexpected deleted files")
+                .containsExactly(report);
+        for (File state : new File[] { durations, failed, steps, part }) {
+            assertThat(state.exists()).as("Run state of other runners must be kept: " + state.getName()).isTrue();
+        }
+    }
+}
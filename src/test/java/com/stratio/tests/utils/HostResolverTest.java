@@ -0,0 +1,53 @@
+package com.stratio.tests.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.util.Collections;
+
+import org.testng.annotations.Test;
+
+public class HostResolverTest {
+
+    @Test
+    public void loopbackTest() throws Exception {
+        for (NetworkInterface iface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+            if (iface.isLoopback() && iface.getInetAddresses().hasMoreElements()) {
+                assertThat(HostResolver.INSTANCE.getIPv4(iface.getName())).as("Unexpected loopback address")
+                        .isEqualTo("127.0.0.1");
+            }
+        }
+        assertThat(HostResolver.INSTANCE.getIPv4("nonexistent0")).as("Unknown interfaces must not resolve").isNull();
+    }
+
+    @Test
+    public void subInterfacesTest() throws Exception {
+        for (NetworkInterface iface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+            for (NetworkInterface subIface : Collections.list(iface.getSubInterfaces())) {
+                for (InetAddress address : Collections.list(subIface.getInetAddresses())) {
+                    if (address instanceof Inet4Address) {
+                        assertThat(HostResolver.INSTANCE.getIPv4(subIface.getName()))
+                                .as("Sub-interfaces must resolve").isNotNull();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void missKeptTest() {
+        assertThat(HostResolver.INSTANCE.isKnown("nonexistent1")).as("Unexpected interface").isFalse();
+        assertThat(HostResolver.INSTANCE.getIPv4("nonexistent1")).as("Unknown interfaces must not resolve").isNull();
+        assertThat(HostResolver.INSTANCE.isKnown("nonexistent1")).as("Misses must be kept until the next refresh")
+                .isTrue();
+    }
+
+    @Test
+    public void freePortTest() throws Exception {
+        int port = HostResolver.INSTANCE.getFreePort("a");
+        assertThat(port).as("Unexpected port").isGreaterThan(0);
+        assertThat(HostResolver.INSTANCE.getFreePort("a")).as("Ports must be kept per name").isEqualTo(port);
+    }
+}
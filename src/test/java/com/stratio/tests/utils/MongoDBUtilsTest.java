@@ -0,0 +1,78 @@
+package com.stratio.tests.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.testng.annotations.Test;
+
+import com.mongodb.CommandResult;
+import com.mongodb.DB;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoException;
+
+public class MongoDBUtilsTest {
+
+    private MongoClient client(boolean healthy) {
+        MongoClient client = mock(MongoClient.class);
+        DB admin = mock(DB.class);
+        when(client.getDB("admin")).thenReturn(admin);
+        if (healthy) {
+            CommandResult ping = mock(CommandResult.class);
+            when(ping.ok()).thenReturn(true);
+            when(admin.command("ping")).thenReturn(ping);
+        } else {
+            when(admin.command("ping")).thenThrow(new MongoException("connection lost"));
+        }
+        return client;
+    }
+
+    @Test
+    public void reuseTest() throws Exception {
+        MongoClient client = client(true);
+        MongoDBUtils utils = spy(new MongoDBUtils());
+        doReturn(client).when(utils).newClient();
+
+        utils.connectIfNeeded();
+        utils.connectIfNeeded();
+
+        verify(utils, times(1)).newClient();
+        verify(client, never()).close();
+        assertThat(utils.isConnected()).as("The shared client must stay connected").isTrue();
+    }
+
+    @Test
+    public void reconnectTest() throws Exception {
+        MongoClient lost = client(false);
+        MongoClient client = client(true);
+        MongoDBUtils utils = spy(new MongoDBUtils());
+        doReturn(lost).doReturn(client).when(utils).newClient();
+
+        utils.connectIfNeeded();
+        utils.connectIfNeeded();
+
+        verify(utils, times(2)).newClient();
+        verify(lost).close();
+        assertThat(utils.isConnected()).as("A lost client must be replaced").isTrue();
+    }
+
+    @Test
+    public void dataBaseResetTest() throws Exception {
+        MongoClient client = client(true);
+        when(client.getDB("previous")).thenReturn(mock(DB.class));
+        MongoDBUtils utils = spy(new MongoDBUtils());
+        doReturn(client).when(utils).newClient();
+
+        utils.connectIfNeeded();
+        utils.connectToMongoDBDataBase("previous");
+        utils.connectIfNeeded();
+
+        verify(utils, times(1)).newClient();
+        assertThat(utils.getDataBase()).as("The database of a previous scenario must be forgotten").isNull();
+    }
+}
@@ -0,0 +1,84 @@
+package com.stratio.tests.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import org.mockito.InOrder;
+import org.openqa.selenium.WebDriver.Options;
+import org.openqa.selenium.WebDriver.TargetLocator;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class WebDriverPoolTest {
+
+    private static final String GRID = "grid:4444";
+    private static final String BROWSER = "chrome_33";
+
+    private RemoteWebDriver driver(TargetLocator locator, String... handles) {
+        RemoteWebDriver driver = mock(RemoteWebDriver.class);
+        when(driver.getWindowHandles()).thenReturn(new LinkedHashSet<String>(Arrays.asList(handles)));
+        when(driver.getWindowHandle()).thenReturn(handles[0]);
+        when(driver.manage()).thenReturn(mock(Options.class));
+        when(driver.switchTo()).thenReturn(locator);
+        when(locator.window(anyString())).thenReturn(driver);
+        return driver;
+    }
+
+    @AfterMethod
+    public void cleanup() {
+        WebDriverPool.INSTANCE.shutdown();
+    }
+
+    @Test
+    public void resetTest() {
+        TargetLocator locator = mock(TargetLocator.class);
+        RemoteWebDriver driver = driver(locator, "main", "popup", "tab");
+
+        WebDriverPool.INSTANCE.release(GRID, BROWSER, driver, false);
+
+        InOrder order = inOrder(driver, locator);
+        order.verify(locator).window("popup");
+        order.verify(driver).close();
+        order.verify(locator).window("tab");
+        order.verify(driver).close();
+        order.verify(locator).window("main");
+        order.verify(driver).get("about:blank");
+        verify(locator, times(1)).window("main");
+        verify(driver, times(2)).close();
+        assertThat(WebDriverPool.INSTANCE.acquire(GRID, BROWSER)).as("A reset session must be reused")
+                .isSameAs(driver);
+    }
+
+    @Test
+    public void failedScenarioTest() {
+        RemoteWebDriver driver = driver(mock(TargetLocator.class), "main");
+
+        WebDriverPool.INSTANCE.release(GRID, BROWSER, driver, true);
+
+        verify(driver).quit();
+        assertThat(WebDriverPool.INSTANCE.acquire(GRID, BROWSER)).as("A failed session must not be reused")
+                .isNull();
+    }
+
+    @Test
+    public void keyTest() {
+        RemoteWebDriver driver = driver(mock(TargetLocator.class), "main");
+
+        WebDriverPool.INSTANCE.release(GRID, BROWSER, driver, false);
+
+        assertThat(WebDriverPool.INSTANCE.acquire("other:4444", BROWSER))
+                .as("A session must not be reused on another grid").isNull();
+        assertThat(WebDriverPool.INSTANCE.acquire(GRID, "firefox_31"))
+                .as("A session must not be reused for another browser").isNull();
+        assertThat(WebDriverPool.INSTANCE.acquire(GRID, BROWSER)).as("Unexpected session").isSameAs(driver);
+    }
+}
@@ -0,0 +1,14 @@
+Feature: Parallel A
+
+  Scenario: slow first
+    Given I wait 400 ms
+    Then the data set is ''
+
+  Scenario Outline: outline
+    Given I wait <ms> ms
+    Then the data set is '[<name>, <ms>]'
+
+    Examples:
+      | name | ms  |
+      | one  | 100 |
+      | two  | 0   |
@@ -0,0 +1,8 @@
+Feature: Parallel B
+
+  Scenario: fast failing
+    Given I wait 0 ms
+    Then it fails
+
+  Scenario: undefined
+    Given a step nobody implemented
@@ -0,0 +1,9 @@
+Feature: Parallel replacement
+
+  Scenario: first saved
+    Given I save 'one' in thread property 'PARALLEL_FIRST'
+    Then I use '!{PARALLEL_FIRST}'
+
+  Scenario: second saved
+    Given I save 'two' in thread property 'PARALLEL_SECOND'
+    Then I use '!{PARALLEL_SECOND}'